@@ -0,0 +1,652 @@
+package org.victorschappert.notabs;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Arrays.stream;
+import static org.victorschappert.notabs.PathUtil.normalize;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.Scanner;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+/**
+ * <p>
+ * Configuration and scanning logic shared by the goals of this plugin.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public abstract class AbstractNoTabsMojo extends AbstractMojo {
+
+    //
+    // DATA
+    //
+
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    private MavenProject project;
+
+    @Component
+    private BuildContext buildContext;
+
+    @Parameter(defaultValue = "${" + ENCODING_PROPERTY + "}", required = true, readonly = true)
+    private String defaultEncoding;
+
+//    @Parameter(defaultValue = "", required = false)
+//    private String[] addglobs;
+
+    @Parameter(defaultValue = "", required = false)
+    private List<Object> subglobs;
+
+    /**
+     * Files larger than this many bytes are split into chunks that are
+     * scanned in parallel.
+     */
+    @Parameter(defaultValue = "67108864", required = false)
+    private long chunkThreshold;
+
+    /**
+     * Size in bytes of the chunks into which large files are split. Rounded
+     * down to a whole number of code units of the source encoding.
+     */
+    @Parameter(defaultValue = "16777216", required = false)
+    private long chunkSize;
+
+    /**
+     * If true, scan only the project's compile and test source roots, its
+     * resource directories (honouring their includes and excludes), its POM
+     * and {@link #extraRoots} instead of the whole base directory.
+     */
+    @Parameter(defaultValue = "false", required = false)
+    private boolean useSourceRoots;
+
+    /**
+     * Extra files or directories scanned in full when
+     * {@link #useSourceRoots} is set.
+     */
+    @Parameter(required = false)
+    private List<File> extraRoots;
+
+    /**
+     * How to treat symbolic links: {@code SKIP} them, {@code FOLLOW} them
+     * (stopping at links that loop back into the current path), or
+     * {@code FOLLOW_ONCE}, which also scans each physical file only once per
+     * run however many links lead to it.
+     */
+    @Parameter(defaultValue = "FOLLOW_ONCE", required = false)
+    private SymlinkPolicy symlinks;
+
+    /**
+     * Globs selecting zip or jar files whose entries are scanned, without
+     * extraction, instead of skipping the archive as binary.
+     */
+    @Parameter(required = false)
+    private List<Object> archiveGlobs;
+
+    /**
+     * Globs selecting the entries to scan inside the archives matched by
+     * {@link #archiveGlobs}. If empty, every entry is scanned.
+     */
+    @Parameter(required = false)
+    private List<Object> archiveEntryGlobs;
+
+    /**
+     * Optional directory in which scan verdicts are cached by file content,
+     * <em>eg</em> {@code ${user.home}/.m2/notabs-cache}. The cache can be
+     * shared by any number of worktrees and concurrent builds.
+     */
+    @Parameter(required = false)
+    private File cacheDirectory;
+
+    /**
+     * Maximum number of verdicts kept in {@link #cacheDirectory}; the least
+     * recently used are evicted beyond this.
+     */
+    @Parameter(defaultValue = "100000", required = false)
+    private int cacheMaxEntries;
+
+    /**
+     * Number of threads used for a full scan. With more than one thread,
+     * directories are listed in parallel by work-stealing fork/join tasks and
+     * files are then scanned largest first, so that one big file doesn't
+     * leave a long tail; read-ahead isn't used as the threads already overlap
+     * their reads.
+     */
+    @Parameter(defaultValue = "1", required = false)
+    private int threads;
+
+    /**
+     * Number of files read ahead, on background threads, while earlier files
+     * are scanned. Set to 0 to read and scan each file in turn.
+     */
+    @Parameter(defaultValue = "8", required = false)
+    private int prefetchDepth;
+
+    /**
+     * Bytes of buffer memory shared by the files being read ahead. Files
+     * larger than {@code prefetchMemory / prefetchDepth} aren't prefetched.
+     */
+    @Parameter(defaultValue = "8388608", required = false)
+    private long prefetchMemory;
+
+    /**
+     * If true, a full scan skips the files of directories whose modification
+     * time and entry count haven't changed since they were last found clean,
+     * without reading or even stat-ing those files. Directory stamps are kept
+     * in {@link #stampFile}. Note that a file rewritten in place, rather than
+     * replaced, doesn't change its directory's stamp and so isn't rescanned
+     * until something else in the directory changes.
+     */
+    @Parameter(defaultValue = "false", required = false)
+    private boolean skipUnchangedDirectories;
+
+    /**
+     * File in which the directory stamps used by
+     * {@link #skipUnchangedDirectories} are kept.
+     */
+    @Parameter(defaultValue = "${project.build.directory}/notabs-stamps", required = false)
+    private File stampFile;
+
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
+    private Pattern[] addPats;
+    private Pattern[] subPats;
+    private Pattern[] archivePats;
+    private Pattern[] archiveEntryPats;
+    private CodeUnit unit;
+    private ScanRoots roots;
+    private ResultCache cache;
+    private DirectoryStamps stamps;
+    private final List<String> violations = new ArrayList<>();
+
+    //
+    // FOR SUBCLASSES
+    //
+
+    /**
+     * Validates the configuration and resets the violation list. Must be
+     * called before any of the other scanning methods.
+     *
+     * @throws MojoExecutionException If the configuration is invalid
+     */
+    protected final void prepare() throws MojoExecutionException {
+        // TODO: Need to deal with Maven source encoding, XML file encoding, and
+        // the fact that tab in UTF-16 is a.k.a contains NUL
+        // Use XMLStreamReader on XML -
+        // https://docs.oracle.com/javase/8/docs/api/javax/xml/stream/XMLStreamReader.html
+        // https://docs.oracle.com/javase/8/docs/api/javax/xml/stream/XMLInputFactory.html
+        if (null == project) {
+            throw new MojoExecutionException("Maven project is not set!");
+        }
+        Charset charset = null;
+        if (null == defaultEncoding) {
+            charset = Charset.defaultCharset();
+            getLog().warn(
+                    "Using platform encoding " + charset.name()
+                            + " for checking tabs "
+                            + "- your build is platform-dependent!"
+                            + "(Set property " + ENCODING_PROPERTY
+                            + " to correct this.)");
+        } else {
+            charset = Charset.forName(defaultEncoding);
+        }
+        unit = CodeUnit.of(charset);
+//        addPats = glob2Regex(addglobs);
+        subPats = glob2Regex(subglobs);
+        archivePats = glob2Regex(archiveGlobs);
+        archiveEntryPats = glob2Regex(archiveEntryGlobs);
+        try {
+            roots = useSourceRoots ? ScanRoots.fromProject(project, extraRoots)
+                    : null;
+        } catch (GlobParseException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+        cache = null == cacheDirectory ? null : new ResultCache(
+                cacheDirectory.toPath(), cacheMaxEntries, unit,
+                pluginVersion);
+        violations.clear();
+        if (getLog().isDebugEnabled()) {
+            getLog().debug("Project base directory is " + getBasedir());
+        }
+    }
+
+    protected final MavenProject getProject() {
+        return project;
+    }
+
+    protected final Path getBasedir() {
+        return project.getBasedir().toPath();
+    }
+
+    protected final BuildContext getBuildContext() {
+        return buildContext;
+    }
+
+    protected final SymlinkPolicy getSymlinkPolicy() {
+        return symlinks;
+    }
+
+    /**
+     * @return Roots to scan if {@link #useSourceRoots} is set, otherwise
+     * {@code null}
+     */
+    protected final ScanRoots getScanRoots() {
+        return roots;
+    }
+
+    /**
+     * @return Normalized paths of the files found to contain tabs since the
+     * last call to {@link #prepare()}
+     */
+    protected final List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * Applies the subglobs to a normalized path.
+     *
+     * @param normalized Path relative to the base directory, using '/' as the
+     * separator
+     * @return Whether the path should be scanned
+     */
+    protected final boolean isIncluded(final String normalized) {
+        if (!stream(subPats).anyMatch(
+                pat -> pat.matcher(normalized).matches())) {
+            return true;
+        } else {
+            if (getLog().isDebugEnabled()) {
+                getLog().debug(
+                        format("Skipping %s due to subglobs", normalized));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Decides whether a full scan would check a file, for files found other
+     * than by a full scan, <em>eg</em> because they were reported as changed.
+     * The file must not be in a directory excluded by the subglobs and, if
+     * {@link #useSourceRoots} is set, must be selected by the source roots.
+     *
+     * @param file File to test
+     * @param normalized Normalized path of the file
+     * @return Whether the file should be scanned
+     */
+    protected final boolean isSelected(final File file,
+            final String normalized) {
+        return PathUtil.isIncludedWithParents(this::isIncluded, normalized)
+                && (null == roots || roots.selects(file.toPath()));
+    }
+
+    /**
+     * Scans every included file under the project base directory or, if
+     * {@link #useSourceRoots} is set, under the project's source roots. If
+     * {@link #skipUnchangedDirectories} is set, unchanged clean directories
+     * are skipped.
+     *
+     * @throws MojoExecutionException If a file can't be read
+     */
+    protected final void scanTree() throws MojoExecutionException {
+        final Path basedirpath = getBasedir();
+        try {
+            if (skipUnchangedDirectories) {
+                stamps = new DirectoryStamps(stampFile.toPath(),
+                        describeConfig(basedirpath),
+                        System.currentTimeMillis());
+                stamps.load();
+            }
+            final ScanRoots.Traverser traverser = null == stamps
+                    ? PathUtil::traverse : stamps::traverse;
+            if (1 < threads) {
+                scanParallel(basedirpath);
+            } else if (prefetchDepth < 1) {
+                walk(basedirpath, this::checkForTabs, traverser);
+            } else {
+                try (final Prefetcher prefetcher = new Prefetcher(
+                        prefetchDepth, prefetchMemory, this::checkForTabs)) {
+                    walk(basedirpath, (file, normalized) -> {
+                        if (matchesAny(archivePats, normalized)) {
+                            prefetcher.finish();
+                            checkForTabs(file, normalized);
+                        } else {
+                            prefetcher.submit(file, normalized);
+                        }
+                    }, traverser);
+                    prefetcher.finish();
+                }
+            }
+            if (null != stamps) {
+                saveStamps();
+            }
+        } catch (GlobParseException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException(e.getCause().getMessage(),
+                    e.getCause());
+        } finally {
+            stamps = null;
+        }
+        evictCache();
+    }
+
+    /**
+     * Scans only the included files that the build context reports as changed
+     * since the last build, and clears the markers of deleted files. Used for
+     * incremental IDE builds.
+     *
+     * @throws MojoExecutionException If a file can't be read
+     */
+    protected final void scanDelta() throws MojoExecutionException {
+        final Path basedirpath = getBasedir();
+        final File basedir = basedirpath.toFile();
+        final Scanner deleted = buildContext.newDeleteScanner(basedir);
+        deleted.scan();
+        for (final String relpath : deleted.getIncludedFiles()) {
+            buildContext.removeMessages(new File(basedir, relpath));
+        }
+        final Scanner changed = buildContext.newScanner(basedir);
+        changed.scan();
+        try {
+            for (final String relpath : changed.getIncludedFiles()) {
+                final File file = new File(basedir, relpath);
+                final String normalized = normalize(basedirpath, file);
+                if (isSelected(file, normalized)) {
+                    checkForTabs(file, normalized);
+                }
+            } // for
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException(e.getCause().getMessage(),
+                    e.getCause());
+        }
+        evictCache();
+    }
+
+    /**
+     * Scans one file, logging and recording it as a violation if it contains
+     * a tab. The file's build context markers are replaced: a tab is marked as
+     * a warning during incremental builds and as an error otherwise. Archives
+     * selected by {@link #archiveGlobs} have their entries scanned instead.
+     *
+     * @param file File to scan
+     * @param normalized Normalized path of the file
+     * @return Scan result, or {@code null} for an archive
+     * @throws UncheckedIOException If the file can't be read
+     */
+    protected final ScanResult checkForTabs(final File file,
+            final String normalized) {
+        return checkForTabs(file, normalized, null, 0);
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private void walk(final Path basedirpath,
+            final BiConsumer<File, String> consumer,
+            final ScanRoots.Traverser traverser) {
+        if (null != roots) {
+            roots.walk(basedirpath, this::isIncluded, consumer, symlinks,
+                    traverser);
+        } else {
+            traverser.traverse(basedirpath, basedirpath.toFile(),
+                    this::isIncluded, consumer, symlinks, new HashSet<>());
+        }
+    }
+
+    private void scanParallel(final Path basedirpath) {
+        final ForkJoinPool listers = new ForkJoinPool(threads);
+        final ExecutorService scanners = Executors.newFixedThreadPool(threads);
+        try {
+            final ParallelTraverser traverser = new ParallelTraverser(listers);
+            final List<File> files = new ArrayList<>();
+            final List<String> names = new ArrayList<>();
+            // Directory stamps are read and written by a sequential listing
+            walk(basedirpath, (file, normalized) -> {
+                files.add(file);
+                names.add(normalized);
+            }, null == stamps ? traverser::traverse : stamps::traverse);
+            // Longest processing time first: start the biggest files early
+            final List<Integer> order = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); ++i) {
+                if (!matchesAny(archivePats, names.get(i))) {
+                    order.add(i);
+                }
+            }
+            order.sort(Comparator.comparingLong(
+                    (Integer i) -> traverser.size(files.get(i))).reversed());
+            final List<Future<ScanResult>> futures = new ArrayList<>(
+                    files.size());
+            for (int i = 0; i < files.size(); ++i) {
+                futures.add(null);
+            }
+            for (final int i : order) {
+                final File file = files.get(i);
+                futures.set(i, scanners.submit(() -> scan(file, null, 0)));
+            }
+            // Report on this thread, in traversal order
+            for (int i = 0; i < files.size(); ++i) {
+                final Future<ScanResult> future = futures.get(i);
+                if (null == future) {
+                    checkForTabs(files.get(i), names.get(i));
+                } else {
+                    buildContext.removeMessages(files.get(i));
+                    report(files.get(i), names.get(i), future.get());
+                }
+            } // for
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException(
+                    "Interrupted while scanning", e));
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw new UncheckedIOException(cause instanceof IOException
+                    ? (IOException) cause : new IOException("Failed to scan: "
+                            + cause, cause));
+        } finally {
+            scanners.shutdownNow();
+            listers.shutdownNow();
+        }
+    }
+
+    private ScanResult checkForTabs(final File file, final String normalized,
+            final byte[] content, final int length) {
+//        if (getLog().isDebugEnabled()) {
+            getLog().debug(format("Checking %s for tabs", file));
+//        }
+        buildContext.removeMessages(file);
+        if (matchesAny(archivePats, normalized)) {
+            checkArchive(file, normalized);
+            return null;
+        }
+        final ScanResult result;
+        try {
+            result = scan(file, content, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        report(file, normalized, result);
+        return result;
+    }
+
+    // Safe to call from several threads at once
+    private ScanResult scan(final File file, final byte[] content,
+            final int length) throws IOException {
+        if (null == content) {
+            final long size = Files.size(file.toPath());
+            if (null == cache || chunkThreshold < size) {
+                // Hashing would serialize the parallel scan of a large file
+                return TabChecker.check(file.toPath(), unit, chunkThreshold,
+                        chunkSize);
+            } else if (size <= inMemoryLimit()) {
+                final byte[] bytes = Files.readAllBytes(file.toPath());
+                return scan(file, bytes, bytes.length);
+            } else {
+                return scanHashed(file);
+            }
+        }
+        ScanResult result = null;
+        final String key = null == cache ? null : cache.key(content, length);
+        if (null != key) {
+            result = cache.get(key);
+        }
+        if (null == result) {
+            result = TabChecker.check(new ByteArrayInputStream(content, 0,
+                    length), unit);
+            if (null != key) {
+                cache.put(key, result);
+            }
+        } else if (getLog().isDebugEnabled()) {
+            getLog().debug(format("Using cached verdict for %s", file));
+        }
+        return result;
+    }
+
+    // Hashes a file too big to hold in memory and looks up its verdict. Only a
+    // miss reads the file a second time, to scan it.
+    private ScanResult scanHashed(final File file) throws IOException {
+        final String key = cache.key(file.toPath());
+        ScanResult result = cache.get(key);
+        if (null == result) {
+            result = TabChecker.check(file.toPath(), unit, chunkThreshold,
+                    chunkSize);
+            cache.put(key, result);
+        } else if (getLog().isDebugEnabled()) {
+            getLog().debug(format("Using cached verdict for %s", file));
+        }
+        return result;
+    }
+
+    private long inMemoryLimit() {
+        return max(Constants.BUFFER_SIZE, prefetchMemory
+                / max(1, max(prefetchDepth, threads)));
+    }
+
+    private void report(final File file, final String normalized,
+            final ScanResult result) {
+        if (result.isBinary()) {
+            getLog().debug(format("Skipping %s because it is binary", file));
+        } else if (result.hasTab()) {
+            // The build context logs the message too, so don't log it here
+            violations.add(normalized);
+            buildContext.addMessage(file,
+                    (int) min(Integer.MAX_VALUE, result.getTabLine()),
+                    (int) min(Integer.MAX_VALUE, result.getTabColumn()),
+                    "File contains a tab character",
+                    buildContext.isIncremental() ? BuildContext.SEVERITY_WARNING
+                            : BuildContext.SEVERITY_ERROR, null);
+            if (null != stamps) {
+                stamps.dirty(normalized);
+            }
+        }
+    }
+
+    private void checkArchive(final File file, final String normalized) {
+        try {
+            ArchiveChecker.check(
+                    file.toPath(),
+                    entry -> 0 == archiveEntryPats.length
+                            || matchesAny(archiveEntryPats, entry),
+                    unit,
+                    (entry, result) -> {
+                        if (result.isBinary()) {
+                            getLog().debug(
+                                    format("Skipping %s!/%s because it is "
+                                            + "binary", normalized, entry));
+                        } else if (result.hasTab()) {
+                            violations.add(normalized + "!/" + entry);
+                            if (null != stamps) {
+                                stamps.dirty(normalized);
+                            }
+                            buildContext.addMessage(file, 0, 0, format(
+                                    "Archive entry %s contains a tab "
+                                            + "character at [%d,%d]", entry,
+                                    result.getTabLine(),
+                                    result.getTabColumn()),
+                                    buildContext.isIncremental()
+                                            ? BuildContext.SEVERITY_WARNING
+                                            : BuildContext.SEVERITY_ERROR,
+                                    null);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean matchesAny(final Pattern[] pats,
+            final String path) {
+        return stream(pats).anyMatch(pat -> pat.matcher(path).matches());
+    }
+
+    private void evictCache() {
+        if (null != cache) {
+            try {
+                cache.evict();
+            } catch (IOException e) {
+                getLog().warn("Failed to evict old cache entries: " + e);
+            }
+        }
+    }
+
+    private String describeConfig(final Path basedirpath) {
+        return format("version=%s unit=%s symlinks=%s sub=%s archives=%s"
+                + " entries=%s basedir=%s roots=%s", pluginVersion, unit,
+                symlinks, Arrays.toString(subPats),
+                Arrays.toString(archivePats),
+                Arrays.toString(archiveEntryPats), basedirpath,
+                null == roots ? "" : roots);
+    }
+
+    private void saveStamps() {
+        if (getLog().isDebugEnabled()) {
+            getLog().debug(format("Skipped the files of %d unchanged "
+                    + "directories", stamps.getSkipped()));
+        }
+        try {
+            stamps.save();
+        } catch (IOException e) {
+            getLog().warn("Failed to save directory stamps: " + e);
+        }
+    }
+
+    private static final String ENCODING_PROPERTY = "project.build.sourceEncoding";
+
+    private static Pattern[] glob2Regex(final List<Object> globs)
+            throws MojoExecutionException {
+        if (null == globs) {
+            return new Pattern[0];
+        }
+        try {
+            return globs.stream().map(Object::toString).map(GlobParser::parse)
+                    .toArray(Pattern[]::new);
+        } catch (GlobParseException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+}
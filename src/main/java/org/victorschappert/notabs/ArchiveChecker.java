@@ -0,0 +1,77 @@
+package org.victorschappert.notabs;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * <p>
+ * Scans the entries of a zip or jar archive for tabs without extracting them.
+ * </p>
+ *
+ * <p>
+ * The archive is read sequentially with a {@link ZipInputStream}, and each
+ * selected entry is streamed through {@link TabChecker} as it is inflated, so
+ * neither temporary files nor whole-entry buffers are needed.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class ArchiveChecker {
+
+    private ArchiveChecker() {
+        throw new IllegalStateException("Can't instantiate");
+    }
+
+    //
+    // STATICS
+    //
+
+    /**
+     * Scans the selected entries of an archive.
+     *
+     * @param archive Zip or jar file
+     * @param filter Selects entries by name (always '/'-separated)
+     * @param unit Code unit of the encoding
+     * @param consumer Receives the name and scan result of each selected entry
+     * @throws IOException If the archive can't be read or is corrupt
+     */
+    static void check(final Path archive, final Predicate<String> filter,
+            final CodeUnit unit, final BiConsumer<String, ScanResult> consumer)
+            throws IOException {
+        try (final ZipInputStream zip = new ZipInputStream(
+                new BufferedInputStream(Files.newInputStream(archive),
+                        Constants.BUFFER_SIZE))) {
+            check(zip, filter, unit, consumer);
+        }
+    }
+
+    /**
+     * Scans the selected entries of an archive stream.
+     *
+     * @param zip Archive stream (not closed by this method)
+     * @param filter Selects entries by name (always '/'-separated)
+     * @param unit Code unit of the encoding
+     * @param consumer Receives the name and scan result of each selected entry
+     * @throws IOException If the archive can't be read or is corrupt
+     */
+    static void check(final ZipInputStream zip,
+            final Predicate<String> filter, final CodeUnit unit,
+            final BiConsumer<String, ScanResult> consumer) throws IOException {
+        ZipEntry entry;
+        while (null != (entry = zip.getNextEntry())) {
+            if (!entry.isDirectory() && filter.test(entry.getName())) {
+                // The stream reports end of input at the end of the entry
+                consumer.accept(entry.getName(),
+                        TabChecker.check(zip, unit));
+            }
+            zip.closeEntry();
+        } // while
+    }
+}
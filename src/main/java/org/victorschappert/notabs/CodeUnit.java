@@ -0,0 +1,163 @@
+package org.victorschappert.notabs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <p>
+ * Size and byte order of the code units of a source encoding, which decide
+ * what a tab or a line feed looks like in the raw bytes.
+ * </p>
+ *
+ * <p>
+ * The byte order of the plain {@code UTF-16} and {@code UTF-32} encodings is
+ * given by a byte order mark at the start of the text, and is big-endian if
+ * there is none. Units of these encodings must be {@link #resolve(int)
+ * resolved} from the first code unit before they are compared.
+ * </p>
+ *
+ * <p>
+ * UTF-8 has its own unit, the same as any other single-byte encoding's but
+ * for recognizing the three-byte UTF-8 byte order mark.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+enum CodeUnit {
+
+    BYTE(1, false, false, 0, 0L),
+    UTF_8(1, false, false, 3, 0xefbbbfL),
+    UTF_16(2, false, true, 0, 0L),
+    UTF_16BE(2, false, false, 2, 0xfeffL),
+    UTF_16LE(2, true, false, 2, 0xfffeL),
+    UTF_32(4, false, true, 0, 0L),
+    UTF_32BE(4, false, false, 4, 0xfeffL),
+    UTF_32LE(4, true, false, 4, 0xfffe0000L);
+
+    //
+    // DATA
+    //
+
+    private final int size;
+    private final boolean littleEndian;
+    private final boolean byteOrderMarked;
+    private final int markSize; // Zero if there's no mark or it's unresolved
+    private final long mark;
+
+    //
+    // CONSTRUCTORS
+    //
+
+    private CodeUnit(final int size, final boolean littleEndian,
+            final boolean byteOrderMarked, final int markSize,
+            final long mark) {
+        this.size = size;
+        this.littleEndian = littleEndian;
+        this.byteOrderMarked = byteOrderMarked;
+        this.markSize = markSize;
+        this.mark = mark;
+    }
+
+    //
+    // STATICS
+    //
+
+    /**
+     * Returns the code unit of a charset.
+     *
+     * @param charset Encoding of the text to scan
+     * @return Code unit of the charset
+     */
+    static CodeUnit of(final Charset charset) {
+        final String name = charset.name().toUpperCase();
+        if (name.contains("UTF-32")) {
+            return name.contains("32LE") ? UTF_32LE
+                    : name.contains("32BE") ? UTF_32BE : UTF_32;
+        } else if (name.contains("UTF-16")) {
+            return name.contains("16LE") ? UTF_16LE
+                    : name.contains("16BE") ? UTF_16BE : UTF_16;
+        } else {
+            return "UTF-8".equals(name) ? UTF_8 : BYTE;
+        }
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * @return Number of bytes in one code unit
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param ch ASCII character
+     * @return Value of the code unit encoding the character, with the unit's
+     * bytes read in file order as a big-endian number
+     */
+    int valueOf(final char ch) {
+        return littleEndian ? ch << 8 * (size - 1) : ch;
+    }
+
+    /**
+     * Tells whether the start of a text is the encoding's byte order mark.
+     *
+     * @param head Value of the first bytes of the text, read in file order
+     * as a big-endian number
+     * @param length Number of bytes in {@code head}
+     * @return Whether {@code head} is the whole byte order mark of a unit
+     * with a definite byte order
+     */
+    boolean isByteOrderMark(final long head, final int length) {
+        return 0 < markSize && markSize == length && mark == head;
+    }
+
+    /**
+     * Settles the byte order of an encoding that is given by a byte order
+     * mark.
+     *
+     * @param first Value of the first code unit of the text, with its bytes
+     * read in file order as a big-endian number
+     * @return Unit with a definite byte order
+     */
+    CodeUnit resolve(final int first) {
+        if (UTF_16 == this) {
+            return 0xfffe == first ? UTF_16LE : UTF_16BE;
+        } else if (UTF_32 == this) {
+            return 0xfffe0000 == first ? UTF_32LE : UTF_32BE;
+        } else {
+            return this;
+        }
+    }
+
+    /**
+     * Settles the byte order of an encoding that is given by a byte order
+     * mark from the start of a file.
+     *
+     * @param file File to examine
+     * @return Unit with a definite byte order
+     * @throws IOException If the file can't be read
+     */
+    CodeUnit resolve(final Path file) throws IOException {
+        if (!byteOrderMarked) {
+            return this;
+        }
+        int first = 0;
+        try (final InputStream in = Files.newInputStream(file)) {
+            for (int k = 0; k < size; ++k) {
+                final int b = in.read();
+                if (b < 0) {
+                    return resolve(0);
+                }
+                first = first << 8 | b;
+            }
+        }
+        return resolve(first);
+    }
+}
@@ -12,6 +12,6 @@ final class Constants {
         throw new IllegalStateException("Can't instantiate");
     }
 
-    final int BUFFER_SIZE = 8192;
+    static final int BUFFER_SIZE = 8192;
 
 }
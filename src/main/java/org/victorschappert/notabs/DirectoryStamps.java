@@ -0,0 +1,376 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.victorschappert.notabs.PathUtil.attributes;
+import static org.victorschappert.notabs.PathUtil.fileKey;
+import static org.victorschappert.notabs.PathUtil.normalize;
+import static org.victorschappert.notabs.PathUtil.visit;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW_ONCE;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * Persisted tree of directory stamps that lets a full scan skip the files of
+ * directories that haven't changed since they were last found clean.
+ * </p>
+ *
+ * <p>
+ * A directory's stamp is its modification time and number of entries,
+ * together with the names of its subdirectories that passed the filter. When
+ * a directory's stamp is unchanged and it was clean, its files are neither
+ * scanned nor even stat-ed: the traversal only counts the directory's entries
+ * and descends into the recorded subdirectories, each of which is checked
+ * against its own stamp. So a run over an unchanged tree costs one
+ * {@code stat} and one listing per directory instead of one {@code stat} per
+ * file.
+ * </p>
+ *
+ * <p>
+ * Adding, removing or renaming an entry changes a directory's stamp, as does
+ * saving a file by writing a new copy and renaming it over the old one, which
+ * is how most editors and version control tools update files. A file
+ * rewritten in place leaves the stamp alone, though, and so isn't rescanned
+ * until something else in its directory changes. Directories modified shortly
+ * before the run started aren't recorded, so that changes made within the
+ * filesystem's timestamp resolution aren't missed.
+ * </p>
+ *
+ * <p>
+ * The stamps are only used if they were written under the same
+ * configuration, which should describe everything that decides which files
+ * are scanned and how: plugin version, encoding, globs, roots and link
+ * policy.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class DirectoryStamps {
+
+    //
+    // TYPES
+    //
+
+    private static final class Stamp {
+        private final long modified;
+        private final int entries;
+        private final List<String> subdirs;
+
+        private Stamp(final long modified, final int entries,
+                final List<String> subdirs) {
+            this.modified = modified;
+            this.entries = entries;
+            this.subdirs = subdirs;
+        }
+    }
+
+    //
+    // DATA
+    //
+
+    private final Path file;
+    private final String configKey;
+    private final long cutoff;
+    private final Map<String, Stamp> previous = new HashMap<>();
+    private final Map<String, Stamp> current = new TreeMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private int skipped;
+
+    //
+    // CONSTRUCTORS
+    //
+
+    /**
+     * @param file File in which the stamps are kept
+     * @param config Description of the scan configuration; stamps written
+     * under a different description are ignored
+     * @param started Time at which the run started, in milliseconds since the
+     * epoch
+     */
+    DirectoryStamps(final Path file, final String config, final long started) {
+        this.file = file;
+        final MessageDigest digest = ResultCache.newDigest();
+        this.configKey = ResultCache.hex(digest.digest(config.getBytes(UTF_8)));
+        this.cutoff = started - RESOLUTION_MILLIS;
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * @return Number of directories whose files were skipped
+     */
+    int getSkipped() {
+        return skipped;
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Loads the stamps saved by an earlier run. A missing, unreadable or
+     * malformed file, or one written under a different configuration, is
+     * treated as empty.
+     */
+    void load() {
+        previous.clear();
+        try (final BufferedReader in = Files.newBufferedReader(file, UTF_8)) {
+            if (!(FORMAT + ' ' + configKey).equals(in.readLine())) {
+                return;
+            }
+            String line;
+            List<String> subdirs = null;
+            while (null != (line = in.readLine())) {
+                if (line.startsWith("+ ")) {
+                    subdirs.add(line.substring(2));
+                } else {
+                    final String[] fields = line.split(" ", 3);
+                    subdirs = new ArrayList<>();
+                    previous.put(fields[2], new Stamp(
+                            Long.parseLong(fields[0]),
+                            Integer.parseInt(fields[1]), subdirs));
+                }
+            } // while
+        } catch (NoSuchFileException e) {
+            // First run
+        } catch (IOException | RuntimeException e) {
+            previous.clear();
+        }
+    }
+
+    /**
+     * Marks the directory containing a file as not clean, so that it is
+     * scanned in full next time.
+     *
+     * @param normalized Normalized path of a file found to contain a tab
+     */
+    void dirty(final String normalized) {
+        final int slash = normalized.lastIndexOf('/');
+        dirty.add(0 <= slash ? normalized.substring(0, slash) : "");
+    }
+
+    /**
+     * Writes the stamps of the clean directories visited since
+     * {@link #load()}, replacing the file atomically. Stamps of directories
+     * that weren't visited are dropped.
+     *
+     * @throws IOException If the file can't be written
+     */
+    void save() throws IOException {
+        Files.createDirectories(file.getParent());
+        final Path temp = Files.createTempFile(file.getParent(), file
+                .getFileName().toString(), ".tmp");
+        try {
+            try (final BufferedWriter out = Files.newBufferedWriter(temp,
+                    UTF_8)) {
+                out.write(FORMAT + ' ' + configKey);
+                out.newLine();
+                for (final Map.Entry<String, Stamp> entry : current
+                        .entrySet()) {
+                    if (dirty.contains(entry.getKey())) {
+                        continue;
+                    }
+                    final Stamp stamp = entry.getValue();
+                    out.write(stamp.modified + " " + stamp.entries + ' '
+                            + entry.getKey());
+                    out.newLine();
+                    for (final String subdir : stamp.subdirs) {
+                        out.write("+ " + subdir);
+                        out.newLine();
+                    }
+                } // for
+            }
+            try {
+                Files.move(temp, file, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Traverses a directory tree as
+     * {@link PathUtil#traverse(Path, File, Predicate, BiConsumer, SymlinkPolicy, Set)}
+     * does, except that the files of unchanged clean directories are skipped.
+     * Every directory visited is stamped for {@link #save()}.
+     *
+     * @param basepath Path against which normalized paths are computed
+     * @param dir Directory to traverse
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param consumer Receives each file with its normalized path
+     * @param policy How to treat symbolic links
+     * @param seen File keys of the directories already visited and of the
+     * files visited that have more than one name; only used under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}
+     */
+    void traverse(final Path basepath, final File dir,
+            final Predicate<String> filter,
+            final BiConsumer<File, String> consumer,
+            final SymlinkPolicy policy, final Set<Object> seen) {
+        // The starting directory was asked for explicitly, so always follow it
+        final BasicFileAttributes attrs = attributes(dir.toPath(), FOLLOW);
+        if (null != attrs && attrs.isDirectory()) {
+            final Object key = fileKey(dir.toPath(), attrs);
+            if (FOLLOW_ONCE != policy || seen.add(key)) {
+                new Walk(basepath, filter, consumer, policy, seen).enter(dir,
+                        attrs, key);
+            }
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static final String FORMAT = "notabs-stamps-1";
+    private static final long RESOLUTION_MILLIS = 2000L;
+
+    /** Traversal that stamps each directory it lists. */
+    private final class Walk implements PathUtil.Visitor {
+        private final Path basepath;
+        private final Predicate<String> filter;
+        private final BiConsumer<File, String> consumer;
+        private final SymlinkPolicy policy;
+        private final Set<Object> seen;
+        private final Set<Object> ancestors = new HashSet<>();
+
+        private Walk(final Path basepath, final Predicate<String> filter,
+                final BiConsumer<File, String> consumer,
+                final SymlinkPolicy policy, final Set<Object> seen) {
+            this.basepath = basepath;
+            this.filter = filter;
+            this.consumer = consumer;
+            this.policy = policy;
+            this.seen = seen;
+        }
+
+        @Override
+        public void enter(final File dir, final BasicFileAttributes attrs,
+                final Object key) {
+            ancestors.add(key);
+            try {
+                stamp(dir, attrs.lastModifiedTime().toMillis());
+            } finally {
+                ancestors.remove(key);
+            }
+        }
+
+        @Override
+        public void file(final File file, final String normalized,
+                final BasicFileAttributes attrs) {
+            consumer.accept(file, normalized);
+        }
+
+        private void stamp(final File dir, final long modified) {
+            final String name = normalize(basepath, dir);
+            final Stamp old = previous.get(name);
+            if (null != old && old.modified == modified
+                    && old.entries == countEntries(dir.toPath())) {
+                ++skipped;
+                current.put(name, old);
+                // Only the recorded subdirectories can hold files to scan
+                final PathUtil.Visitor subdirsOnly = new PathUtil.Visitor() {
+                    @Override
+                    public void enter(final File subdir,
+                            final BasicFileAttributes attrs,
+                            final Object key) {
+                        Walk.this.enter(subdir, attrs, key);
+                    }
+
+                    @Override
+                    public void file(final File file,
+                            final String normalized,
+                            final BasicFileAttributes attrs) {
+                    }
+                };
+                for (final String subdir : old.subdirs) {
+                    visit(basepath, dir.toPath().resolve(subdir), filter,
+                            policy, seen, ancestors::contains, subdirsOnly);
+                }
+                return;
+            }
+            int entries = 0;
+            final List<String> subdirs = new ArrayList<>();
+            final PathUtil.Visitor recording = new PathUtil.Visitor() {
+                @Override
+                public void listed(final File subdir) {
+                    subdirs.add(subdir.getName());
+                }
+
+                @Override
+                public void enter(final File subdir,
+                        final BasicFileAttributes attrs, final Object key) {
+                    Walk.this.enter(subdir, attrs, key);
+                }
+
+                @Override
+                public void file(final File file, final String normalized,
+                        final BasicFileAttributes attrs) {
+                    Walk.this.file(file, normalized, attrs);
+                }
+            };
+            try (final DirectoryStream<Path> listing = Files
+                    .newDirectoryStream(dir.toPath())) {
+                for (final Path path : listing) {
+                    ++entries;
+                    visit(basepath, path, filter, policy, seen,
+                            ancestors::contains, recording);
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                return; // Unreadable directory: skip the rest, don't stamp it
+            }
+            if (modified < cutoff && isStorable(name) && subdirs.stream()
+                    .allMatch(DirectoryStamps::isStorable)) {
+                current.put(name, new Stamp(modified, entries, subdirs));
+            }
+        }
+    }
+
+    private static boolean isStorable(final String name) {
+        return name.indexOf('\n') < 0 && name.indexOf('\r') < 0;
+    }
+
+    private static int countEntries(final Path dir) {
+        int count = 0;
+        try (final DirectoryStream<Path> listing = Files
+                .newDirectoryStream(dir)) {
+            for (final Iterator<Path> i = listing.iterator(); i.hasNext(); i
+                    .next()) {
+                ++count;
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            return -1; // Never matches a stamp
+        }
+        return count;
+    }
+}
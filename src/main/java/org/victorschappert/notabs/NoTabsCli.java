@@ -0,0 +1,194 @@
+package org.victorschappert.notabs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Command-line entry point that checks files for tabs without starting Maven,
+ * <em>eg</em> from a Git pre-commit hook:
+ * </p>
+ *
+ * <pre>
+ * git diff --cached --name-only --diff-filter=ACM | java -jar notabs-cli.jar
+ * </pre>
+ *
+ * <p>
+ * Files (or directories, which are traversed) are taken from the arguments
+ * or, if there are none or the only one is {@code -}, from standard input, one
+ * per line. The options mirror the goal's configuration:
+ * </p>
+ *
+ * <ul>
+ * <li>{@code --encoding NAME} &mdash; source encoding (default: platform
+ * encoding, as for the goal without {@code project.build.sourceEncoding})
+ * <li>{@code --subglob GLOB} &mdash; skip paths matching the glob; may be
+ * repeated
+ * <li>{@code --basedir DIR} &mdash; directory against which paths are
+ * matched and reported (default: current directory)
+ * <li>{@code --chunk-threshold BYTES}, {@code --chunk-size BYTES} &mdash; as
+ * the goal's {@code chunkThreshold} and {@code chunkSize}
+ * </ul>
+ *
+ * <p>
+ * The exit status is 0 if no tabs were found, 1 if some were and 2 on a usage
+ * or I/O error. The entry point loads none of Maven or Plexus, so its
+ * start-up time is dominated by the JVM itself. It can be cut further with an
+ * application class-data sharing archive, created once with
+ * {@code java -XX:ArchiveClassesAtExit=notabs.jsa -jar notabs-cli.jar ...}
+ * and then used with {@code -XX:SharedArchiveFile=notabs.jsa}.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public final class NoTabsCli {
+
+    //
+    // DATA
+    //
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private Charset charset = Charset.defaultCharset();
+    private boolean explicitCharset;
+    private final List<Pattern> subPats = new ArrayList<>();
+    private Path basepath = Paths.get("").toAbsolutePath();
+    private long chunkThreshold = 67108864L;
+    private long chunkSize = 16777216L;
+    private final List<String> paths = new ArrayList<>();
+    private CodeUnit unit;
+    private int violations;
+
+    //
+    // CONSTRUCTORS
+    //
+
+    NoTabsCli(final PrintStream out, final PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    //
+    // STATICS
+    //
+
+    public static void main(final String[] args) {
+        System.exit(new NoTabsCli(System.out, System.err).run(args,
+                new BufferedReader(new InputStreamReader(System.in))));
+    }
+
+    //
+    // INTERNALS
+    //
+
+    int run(final String[] args, final BufferedReader stdin) {
+        try {
+            parseArgs(args);
+            if (paths.isEmpty()) {
+                String line;
+                while (null != (line = stdin.readLine())) {
+                    if (!line.isEmpty()) {
+                        paths.add(line);
+                    }
+                }
+            }
+            if (!explicitCharset) {
+                err.println("Using platform encoding " + charset.name()
+                        + " for checking tabs (use --encoding to override)");
+            }
+            unit = CodeUnit.of(charset);
+            for (final String path : paths) {
+                final File file = basepath.resolve(path).toFile();
+                final String normalized = PathUtil.normalize(basepath, file);
+                if (!PathUtil.isIncludedWithParents(this::isIncluded,
+                        normalized)) {
+                    continue; // In a directory the subglobs exclude
+                } else if (file.isDirectory()) {
+                    PathUtil.traverse(basepath, file, this::isIncluded,
+                            this::check);
+                } else {
+                    check(file, normalized);
+                }
+            }
+        } catch (IllegalArgumentException | GlobParseException e) {
+            err.println("notabs: " + e.getMessage());
+            return 2;
+        } catch (IOException e) {
+            err.println("notabs: " + e);
+            return 2;
+        } catch (UncheckedIOException e) {
+            err.println("notabs: " + e.getCause());
+            return 2;
+        }
+        return 0 == violations ? 0 : 1;
+    }
+
+    private void parseArgs(final String[] args) {
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("--"); ++i) {
+            final String option = args[i];
+            if ("--".equals(option)) {
+                ++i;
+                break;
+            } else if (args.length <= i + 1) {
+                throw new IllegalArgumentException("missing value for "
+                        + option);
+            }
+            final String value = args[++i];
+            if ("--encoding".equals(option)) {
+                charset = Charset.forName(value);
+                explicitCharset = true;
+            } else if ("--subglob".equals(option)) {
+                subPats.add(GlobParser.parse(value));
+            } else if ("--basedir".equals(option)) {
+                basepath = Paths.get(value).toAbsolutePath();
+            } else if ("--chunk-threshold".equals(option)) {
+                chunkThreshold = Long.parseLong(value);
+            } else if ("--chunk-size".equals(option)) {
+                chunkSize = Long.parseLong(value);
+            } else {
+                throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+        for (; i < args.length; ++i) {
+            if (!"-".equals(args[i])) {
+                paths.add(args[i]);
+            }
+        }
+    }
+
+    private boolean isIncluded(final String normalized) {
+        for (final Pattern pat : subPats) {
+            if (pat.matcher(normalized).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void check(final File file, final String normalized) {
+        final ScanResult result;
+        try {
+            result = TabChecker.check(file.toPath(), unit, chunkThreshold,
+                    chunkSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (result.hasTab()) {
+            out.println(normalized + ":[" + result.getTabLine() + ','
+                    + result.getTabColumn() + "] contains a tab");
+            ++violations;
+        }
+    }
+}
@@ -24,100 +24,51 @@ package org.victorschappert.notabs;
  */
 
 import static java.lang.String.format;
-import static java.util.Arrays.stream;
-import static org.victorschappert.notabs.PathUtil.traverse;
 
-import java.io.File;
-import java.nio.charset.Charset;
-import java.nio.file.Path;
-import java.util.List;
-import java.util.regex.Pattern;
-
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
-import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
+
 /**
  * <p>
  * Trivial goal that simply looks through all project text files and fails the
  * build if any of them contains a tab character.
  * </p>
  *
+ * <p>
+ * During incremental builds in an IDE that supplies a {@code BuildContext},
+ * only the changed files are checked and tabs are reported as warning markers
+ * rather than build failures.
+ * </p>
+ *
  * @author Victor Schappert
  * @since 20160302
  */
 @Mojo(name = "notabs", defaultPhase = LifecyclePhase.VALIDATE)
-public final class NoTabsMojo extends AbstractMojo {
-
-    //
-    // DATA
-    //
-
-    @Parameter(defaultValue = "${project}", required = true, readonly = true)
-    private MavenProject project;
-
-    @Parameter(defaultValue = "${" + ENCODING_PROPERTY + "}", required = true, readonly = true)
-    private String defaultEncoding;
-
-//    @Parameter(defaultValue = "", required = false)
-//    private String[] addglobs;
-
-    @Parameter(defaultValue = "", required = false)
-    private List<Object> subglobs;
-
-    private Pattern[] addPats;
+public final class NoTabsMojo extends AbstractNoTabsMojo {
 
     //
     // INTERFACE: Mojo
     //
 
     @Override
-    public void execute() throws MojoExecutionException {
+    public void execute() throws MojoExecutionException, MojoFailureException {
         // TODO: Somewhere convert globparseexception into
         // mojoexecutionexception
-        // TODO: Need to deal with Maven source encoding, XML file encoding, and
-        // the fact that tab in UTF-16 is a.k.a contains NUL
         // TODO: Log if no source encoding specified
-        // Use XMLStreamReader on XML -
-        // https://docs.oracle.com/javase/8/docs/api/javax/xml/stream/XMLStreamReader.html
-        // https://docs.oracle.com/javase/8/docs/api/javax/xml/stream/XMLInputFactory.html
-        if (null == project) {
-            throw new MojoExecutionException("Maven project is not set!");
-        }
-        Charset charset = null;
-        if (null == defaultEncoding) {
-            charset = Charset.defaultCharset();
-            getLog().warn(
-                    "Using platform encoding " + charset.name()
-                            + " for checking tabs "
-                            + "- your build is platform-dependent!"
-                            + "(Set property " + ENCODING_PROPERTY
-                            + " to correct this.)");
+        prepare();
+        if (getBuildContext().isIncremental()) {
+            // Incremental IDE build: check the delta, leave failing to markers
+            scanDelta();
+            return;
         }
-        final File basedir = project.getBasedir();
-        final Path basedirpath = basedir.toPath();
-        if (getLog().isDebugEnabled()) {
-            getLog().debug("Project base directory is " + basedirpath);
+        scanTree();
+        if (!getViolations().isEmpty()) {
+            throw new MojoFailureException(format(
+                    "Found tabs in %d file(s): %s", getViolations().size(),
+                    getViolations()));
         }
-//        addPats = glob2Regex(addglobs);
-        final Pattern[] subPats = glob2Regex(subglobs);
-        traverse(
-                basedirpath,
-                basedir,
-                file -> {
-                    if (!stream(subPats).anyMatch(
-                            pat -> pat.matcher(file).matches())) {
-                        return true;
-                    } else {
-                        if (getLog().isDebugEnabled()) {
-                            getLog().debug(
-                                    format("Skipping %s due to subglobs", file));
-                        }
-                        return false;
-                    }
-                }, this::checkForTabs);
         // algo
         // 3. for each file:
         // IF it matches a subglob, skip it
@@ -142,26 +93,4 @@ public final class NoTabsMojo extends AbstractMojo {
         // logic for skipping the buffer if exactly bufsize is requested
 
     } // execute()
-
-    //
-    // INTERNALS
-    //
-
-    private static final String ENCODING_PROPERTY = "project.build.sourceEncoding";
-
-    private static Pattern[] glob2Regex(final List<Object> globs)
-            throws MojoExecutionException {
-        try {
-            return globs.stream().map(Object::toString).map(GlobParser::parse)
-                    .toArray(Pattern[]::new);
-        } catch (GlobParseException e) {
-            throw new MojoExecutionException(e.getMessage(), e);
-        }
-    }
-
-    private void checkForTabs(final File file, final String normalized) {
-//        if (getLog().isDebugEnabled()) {
-            getLog().debug(format("Checking %s for tabs", file));
-//        }
-    }
 }
@@ -0,0 +1,296 @@
+package org.victorschappert.notabs;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.victorschappert.notabs.PathUtil.attributes;
+import static org.victorschappert.notabs.PathUtil.fileKey;
+import static org.victorschappert.notabs.PathUtil.normalize;
+import static org.victorschappert.notabs.PathUtil.traverse;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW_ONCE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * <p>
+ * Development goal that scans the project once and then keeps watching it,
+ * rescanning only the files that are created, modified or deleted. Tabs are
+ * reported as they appear but never fail the build. Stop the goal with
+ * Ctrl-C.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+@Mojo(name = "watch", requiresProject = true)
+public final class NoTabsWatchMojo extends AbstractNoTabsMojo {
+
+    //
+    // DATA
+    //
+
+    /**
+     * Milliseconds without further filesystem events after which a batch of
+     * changes is rescanned.
+     */
+    @Parameter(defaultValue = "250", required = false)
+    private long debounce;
+
+    private WatchService watcher;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private final Map<WatchKey, Object> dirKeys = new HashMap<>();
+    private final Set<Object> watchedDirs = new HashSet<>();
+    private final Set<String> offending = new TreeSet<>();
+
+    //
+    // STATICS
+    //
+
+    /**
+     * Drops the violations found in a file, in the entries of an archive or,
+     * for a directory, in any file beneath it.
+     *
+     * @param offending Normalized paths of the files and archive entries
+     * containing tabs
+     * @param normalized Normalized path of a changed file or directory
+     */
+    static void forget(final Set<String> offending, final String normalized) {
+        offending.removeIf(v -> v.equals(normalized)
+                || v.startsWith(normalized + "!/")
+                || v.startsWith(normalized + '/'));
+    }
+
+    //
+    // INTERFACE: Mojo
+    //
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        prepare();
+        scanTree();
+        offending.addAll(getViolations());
+        report();
+        try (final WatchService service = FileSystems.getDefault()
+                .newWatchService()) {
+            watcher = service;
+            registerRoots();
+            getLog().info(
+                    format("Watching %s for changes (Ctrl-C to stop)",
+                            getBasedir()));
+            while (true) {
+                WatchKey key = watcher.take();
+                final Set<Path> changed = new LinkedHashSet<>();
+                boolean overflow = false;
+                do {
+                    overflow |= drain(key, changed);
+                } while (null != (key = watcher.poll(debounce, MILLISECONDS)));
+                rescan(changed, overflow);
+            } // while
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Only the watch service itself is fatal; files that can't be
+            // read are reported by rescan() and watching carries on
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            keys.clear();
+            dirKeys.clear();
+            watchedDirs.clear();
+            watcher = null;
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private void registerRoots() throws IOException {
+        final ScanRoots roots = getScanRoots();
+        if (null == roots) {
+            registerRoot(getBasedir());
+            return;
+        }
+        for (final Path root : roots.getRoots()) {
+            if (Files.isDirectory(root)) {
+                registerRoot(root);
+            } else if (null != root.getParent()
+                    && Files.isDirectory(root.getParent())) {
+                // Watch a file root, such as the POM, through its directory
+                watch(root.getParent(), null);
+            }
+        } // for
+    }
+
+    private void registerRoot(final Path dir) throws IOException {
+        // Roots were asked for explicitly, so always follow them
+        final BasicFileAttributes attrs = attributes(dir, FOLLOW);
+        if (null != attrs && attrs.isDirectory()) {
+            register(dir, attrs, ancestorKeys(dir.getParent()));
+        }
+    }
+
+    /**
+     * Watches a directory and, following the symbolic link policy, its
+     * included subdirectories. Directories whose file key is among the
+     * ancestors, or under {@link SymlinkPolicy#FOLLOW_ONCE} is already
+     * watched, are skipped, so looping links can't make registration recurse.
+     */
+    private void register(final Path dir, final BasicFileAttributes attrs,
+            final Set<Object> ancestors) throws IOException {
+        final Object key = fileKey(dir, attrs);
+        if (ancestors.contains(key)
+                || (FOLLOW_ONCE == getSymlinkPolicy() && watchedDirs
+                        .contains(key))) {
+            return;
+        }
+        watch(dir, key);
+        ancestors.add(key);
+        try (final DirectoryStream<Path> listing = Files
+                .newDirectoryStream(dir)) {
+            for (final Path path : listing) {
+                if (!isIncluded(normalize(getBasedir(), path.toFile()))) {
+                    continue;
+                }
+                final BasicFileAttributes subattrs = attributes(path,
+                        getSymlinkPolicy());
+                if (null != subattrs && subattrs.isDirectory()) {
+                    register(path, subattrs, ancestors);
+                }
+            } // for
+        } finally {
+            ancestors.remove(key);
+        }
+    }
+
+    private void watch(final Path dir, final Object key) throws IOException {
+        final WatchKey watchKey = dir.register(watcher, ENTRY_CREATE,
+                ENTRY_DELETE, ENTRY_MODIFY);
+        keys.put(watchKey, dir);
+        if (null != key) {
+            dirKeys.put(watchKey, key);
+            watchedDirs.add(key);
+        }
+    }
+
+    private static Set<Object> ancestorKeys(final Path dir) {
+        final Set<Object> result = new HashSet<>();
+        for (Path p = dir; null != p; p = p.getParent()) {
+            final BasicFileAttributes attrs = attributes(p, FOLLOW);
+            if (null != attrs) {
+                result.add(fileKey(p, attrs));
+            }
+        }
+        return result;
+    }
+
+    private boolean drain(final WatchKey key, final Set<Path> changed) {
+        final Path dir = keys.get(key);
+        boolean overflow = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (OVERFLOW == event.kind()) {
+                overflow = true;
+            } else if (null != dir) {
+                final Path child = dir.resolve((Path) event.context());
+                final String normalized = normalize(getBasedir(), child
+                        .toFile());
+                final BasicFileAttributes attrs = attributes(child,
+                        getSymlinkPolicy());
+                if (null == attrs && Files.exists(child, NOFOLLOW_LINKS)) {
+                    continue; // Skipped or dangling link
+                } else if (null != attrs && attrs.isDirectory()) {
+                    if (ENTRY_CREATE == event.kind() && isIncluded(normalized)
+                            && (null == getScanRoots() || getScanRoots()
+                                    .contains(child))) {
+                        try {
+                            register(child, attrs, ancestorKeys(dir));
+                        } catch (IOException e) {
+                            getLog().error(format("Failed to watch %s: %s",
+                                    normalized, e));
+                        }
+                        traverse(getBasedir(), child.toFile(),
+                                this::isIncluded, (file, name) -> {
+                                    if (isSelected(file, name)) {
+                                        changed.add(file.toPath());
+                                    }
+                                }, getSymlinkPolicy(), new HashSet<>());
+                    }
+                } else if (ENTRY_DELETE == event.kind()
+                        || isSelected(child.toFile(), normalized)) {
+                    // A deleted entry may have been a directory of offenders
+                    changed.add(child);
+                }
+            }
+        } // for
+        if (!key.reset()) {
+            keys.remove(key);
+            watchedDirs.remove(dirKeys.remove(key));
+        }
+        return overflow;
+    }
+
+    private void rescan(final Set<Path> changed, final boolean overflow) {
+        getViolations().clear();
+        if (overflow) {
+            getLog().warn("Too many changes to track; rescanning everything");
+            offending.clear();
+            try {
+                scanTree();
+            } catch (MojoExecutionException e) {
+                getLog().error("Failed to rescan: " + e.getMessage());
+            }
+        } else {
+            for (final Path path : changed) {
+                final String normalized = normalize(getBasedir(),
+                        path.toFile());
+                forget(offending, normalized);
+                if (Files.isRegularFile(path)
+                        && isSelected(path.toFile(), normalized)) {
+                    try {
+                        checkForTabs(path.toFile(), normalized);
+                    } catch (UncheckedIOException e) {
+                        // Typically a file deleted or locked mid-save
+                        getLog().error(format("Failed to scan %s: %s",
+                                normalized, e.getCause()));
+                    }
+                }
+            } // for
+        }
+        offending.addAll(getViolations());
+        report();
+    }
+
+    private void report() {
+        if (offending.isEmpty()) {
+            getLog().info("No tabs found");
+        } else {
+            getLog().warn(
+                    format("%d file(s) contain tabs: %s", offending.size(),
+                            offending));
+        }
+    }
+}
@@ -69,8 +69,14 @@ final class NulCheckingInputStream extends InputStream {
         }
         int n = read1(b, off, len);
         if (0 <= n) {
+            // available() may be an estimate (eg ZipInputStream), so stop at
+            // the first read that produces nothing
             while (n < len && 0 < underlying.available()) {
-                n += read1(b, off + n, len - n);
+                final int m = read1(b, off + n, len - n);
+                if (m < 1) {
+                    break;
+                }
+                n += m;
             } // while
         }
         return n;
@@ -112,7 +118,7 @@ final class NulCheckingInputStream extends InputStream {
             System.arraycopy(buffer, pos, b, off, avail);
             if (0 < fill()) {
                 pos = min(len - avail, count);
-                System.arraycopy(buffer, 0, b, off, pos);
+                System.arraycopy(buffer, 0, b, off + avail, pos);
                 return avail + pos;
             } else if (0 < avail) {
                 return avail;
@@ -129,10 +135,11 @@ final class NulCheckingInputStream extends InputStream {
     private int fill() throws IOException {
         pos = 0;
         count = underlying.read(buffer, 0, buffer.length);
-        if (1 < count) {
+        if (0 < count) {
             checkNulls(buffer, 0, count);
             return count;
         } else {
+            count = 0; // Keep the buffer empty rather than negative
             return -1;
         }
     }
@@ -140,17 +147,19 @@ final class NulCheckingInputStream extends InputStream {
     private void checkNulls(final byte[] buffer, final int off, final int len)
             throws NulInInputException {
         for (int i = 0; i < len; ++i) {
+            final long index = bytesRead + i;
+            if (0L == index % nulSize) {
+                nulCount = 0; // Only count NULs within one aligned code unit
+            }
             if (0 == buffer[off + i] && nulSize == ++nulCount) {
-                throw new NulInInputException(bytesRead + i);
-            } else {
-                nulCount = 0;
+                throw new NulInInputException(index - (nulSize - 1));
             }
         }
-        bytesRead += len - off;
+        bytesRead += len;
     }
 
     private static int requirePositive(final int value, final String name) {
-        if (value < 0) {
+        if (value < 1) {
             throw new IllegalArgumentException(name
                     + " must be positive, but is " + value);
         }
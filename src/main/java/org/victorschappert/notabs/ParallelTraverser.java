@@ -0,0 +1,330 @@
+package org.victorschappert.notabs;
+
+import static org.victorschappert.notabs.PathUtil.attributes;
+import static org.victorschappert.notabs.PathUtil.fileKey;
+import static org.victorschappert.notabs.PathUtil.isListed;
+import static org.victorschappert.notabs.PathUtil.normalize;
+import static org.victorschappert.notabs.PathUtil.visit;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW_ONCE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * Directory traversal that lists subdirectories in parallel on a work-stealing
+ * {@link ForkJoinPool}. It follows the same filter and symbolic link rules as
+ * the sequential traversal in {@link PathUtil}.
+ * </p>
+ *
+ * <p>
+ * Each directory is a fork/join task that forks one subtask per
+ * subdirectory, so idle threads steal the unexplored parts of deep or
+ * lopsided trees. The consumer is called on the calling thread once listing
+ * is complete, and the size of each file, which the listing reads anyway, is
+ * kept so that scanning can be scheduled largest first.
+ * </p>
+ *
+ * <p>
+ * Under {@link SymlinkPolicy#FOLLOW_ONCE}, the name under which a directory
+ * or file is reached doesn't depend on which task gets there first. Every
+ * directory is listed under its own name before any symbolic link to a
+ * directory is followed, links to directories are then followed in path
+ * order, and a file with several names is passed on under the one that comes
+ * first in path order. This may pick a different name than the sequential
+ * traversal, which takes whichever comes first in listing order.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class ParallelTraverser {
+
+    //
+    // TYPES
+    //
+
+    private static final class Listed {
+        private final File file;
+        private final String normalized;
+        private final long size;
+
+        private Listed(final File file, final String normalized,
+                final long size) {
+            this.file = file;
+            this.normalized = normalized;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Directory entry held back under {@link SymlinkPolicy#FOLLOW_ONCE}
+     * because other entries may lead to the same directory or file.
+     */
+    private static final class Alias {
+        private final Listed listed;
+        private final Object key;
+        private final boolean symbolicLink;
+
+        private Alias(final Listed listed, final Object key,
+                final boolean symbolicLink) {
+            this.listed = listed;
+            this.key = key;
+            this.symbolicLink = symbolicLink;
+        }
+    }
+
+    /** Immutable chain of the file keys of a directory's ancestors. */
+    private static final class Ancestors {
+        private final Object key;
+        private final Ancestors parent;
+
+        private Ancestors(final Object key, final Ancestors parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private boolean contains(final Object other) {
+            for (Ancestors a = this; null != a; a = a.parent) {
+                if (a.key.equals(other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ListTask extends RecursiveTask<List<Listed>> {
+        private final File dir;
+        private final Ancestors ancestors;
+
+        private ListTask(final File dir, final Ancestors ancestors) {
+            this.dir = dir;
+            this.ancestors = ancestors;
+        }
+
+        @Override
+        protected List<Listed> compute() {
+            final List<Listed> files = new ArrayList<>();
+            final List<ListTask> subtasks = new ArrayList<>();
+            final PathUtil.Visitor visitor = new PathUtil.Visitor() {
+                @Override
+                public void enter(final File subdir,
+                        final BasicFileAttributes attrs, final Object key) {
+                    if (FOLLOW_ONCE == policy) {
+                        if (PathUtil.Names.SYMBOLIC_LINK == PathUtil.names(
+                                attrs)) {
+                            links.add(new Alias(new Listed(subdir, normalize(
+                                    basepath, subdir), 0L), key, true));
+                            return;
+                        } else if (!seen.add(key)) {
+                            return;
+                        }
+                    }
+                    // Fork at once so idle workers can steal it
+                    final ListTask subtask = new ListTask(subdir,
+                            new Ancestors(key, ancestors));
+                    subtask.fork();
+                    subtasks.add(subtask);
+                }
+
+                @Override
+                public void file(final File file, final String normalized,
+                        final BasicFileAttributes attrs) {
+                    final Listed listed = new Listed(file, normalized,
+                            attrs.size());
+                    if (FOLLOW_ONCE == policy) {
+                        final Object key = fileKey(file.toPath(), attrs);
+                        if (seen.contains(key)) {
+                            return;
+                        }
+                        final PathUtil.Names names = PathUtil.names(attrs);
+                        if (PathUtil.Names.ONE != names) {
+                            aliases.add(new Alias(listed, key,
+                                    PathUtil.Names.SYMBOLIC_LINK == names));
+                            return;
+                        }
+                    }
+                    files.add(listed);
+                }
+
+                @Override
+                public boolean settlesRepeatVisits() {
+                    return true;
+                }
+            };
+            try (final DirectoryStream<Path> listing = Files
+                    .newDirectoryStream(dir.toPath())) {
+                for (final Path path : listing) {
+                    visit(basepath, path, filter, policy, seen,
+                            ancestors::contains, visitor);
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Unreadable directory: skip the rest of it
+            }
+            for (final ListTask subtask : subtasks) {
+                files.addAll(subtask.join());
+            }
+            return files;
+        }
+    }
+
+    //
+    // DATA
+    //
+
+    private final ForkJoinPool pool;
+    private final Map<File, Long> sizes = new HashMap<>();
+    private final Queue<Alias> links = new ConcurrentLinkedQueue<>();
+    private final Queue<Alias> aliases = new ConcurrentLinkedQueue<>();
+    private Path basepath;
+    private Predicate<String> filter;
+    private SymlinkPolicy policy;
+    private Set<Object> seen;
+
+    //
+    // CONSTRUCTORS
+    //
+
+    /**
+     * @param pool Pool on which directories are listed
+     */
+    ParallelTraverser(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * Returns the size of a file passed to a consumer by this traverser.
+     *
+     * @param file File passed to the consumer
+     * @return Size in bytes, as read while listing
+     */
+    long size(final File file) {
+        final Long size = sizes.get(file);
+        return null == size ? file.length() : size;
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Traverses a directory tree in parallel, then passes each regular file
+     * accepted by the filter to the consumer on the calling thread. Must not
+     * be called concurrently on the same traverser.
+     *
+     * @param basepath Path against which normalized paths are computed
+     * @param dir Directory to traverse
+     * @param filter Filter applied to normalized paths of files and
+     * directories; must be thread-safe
+     * @param consumer Receives each file with its normalized path
+     * @param policy How to treat symbolic links
+     * @param seen File keys of the directories already visited and of the
+     * files visited that have more than one name; only used under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}
+     */
+    void traverse(final Path basepath, final File dir,
+            final Predicate<String> filter,
+            final BiConsumer<File, String> consumer,
+            final SymlinkPolicy policy, final Set<Object> seen) {
+        // The starting directory was asked for explicitly, so always follow it
+        final BasicFileAttributes attrs = attributes(dir.toPath(), FOLLOW);
+        if (null == attrs || !attrs.isDirectory()) {
+            return;
+        }
+        final Object key = fileKey(dir.toPath(), attrs);
+        if (FOLLOW_ONCE == policy && !seen.add(key)) {
+            return;
+        }
+        this.basepath = basepath;
+        this.filter = filter;
+        this.policy = policy;
+        this.seen = ConcurrentHashMap.newKeySet();
+        this.seen.addAll(seen);
+        final List<Listed> files = new ArrayList<>();
+        try {
+            files.addAll(pool.invoke(new ListTask(dir,
+                    new Ancestors(key, null))));
+            if (FOLLOW_ONCE == policy) {
+                files.addAll(listLinks());
+                files.addAll(resolveAliases());
+            }
+        } finally {
+            seen.addAll(this.seen);
+            this.seen = null;
+            links.clear();
+            aliases.clear();
+        }
+        for (final Listed listed : files) {
+            sizes.put(listed.file, listed.size);
+            consumer.accept(listed.file, listed.normalized);
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    // With '/' as the lowest character, string order is component order
+    private static final Comparator<Alias> PATH_ORDER = Comparator
+            .comparing((Alias alias) -> alias.listed.normalized.replace('/',
+                    '\0'));
+
+    private List<Listed> listLinks() {
+        final List<Listed> files = new ArrayList<>();
+        final PriorityQueue<Alias> pending = new PriorityQueue<>(PATH_ORDER);
+        while (true) {
+            // Links found under a link come after it in path order
+            for (Alias link; null != (link = links.poll());) {
+                pending.add(link);
+            }
+            final Alias next = pending.poll();
+            if (null == next) {
+                return files;
+            } else if (seen.add(next.key)) {
+                files.addAll(pool.invoke(new ListTask(next.listed.file,
+                        new Ancestors(next.key, null))));
+            }
+        } // while
+    }
+
+    private List<Listed> resolveAliases() {
+        final List<Alias> sorted = new ArrayList<>(aliases);
+        sorted.sort(PATH_ORDER);
+        final List<Listed> files = new ArrayList<>();
+        for (final Alias alias : sorted) {
+            if (alias.symbolicLink
+                    && isListed(alias.listed.file.toPath(), seen)) {
+                continue; // Reached under its own name
+            } else if (seen.add(alias.key)) {
+                files.add(alias.listed);
+            }
+        } // for
+        return files;
+    }
+}
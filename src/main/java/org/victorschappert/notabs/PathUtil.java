@@ -1,13 +1,24 @@
 package org.victorschappert.notabs;
 
 import static java.io.File.separatorChar;
-import static java.util.Arrays.stream;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW;
+import static org.victorschappert.notabs.SymlinkPolicy.FOLLOW_ONCE;
+import static org.victorschappert.notabs.SymlinkPolicy.SKIP;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
-
-import com.google.common.base.Predicate;
+import java.util.function.Predicate;
 
 /**
  * <p>
@@ -19,6 +30,171 @@ import com.google.common.base.Predicate;
  */
 class PathUtil {
 
+    //
+    // TYPES
+    //
+
+    /**
+     * Receives the outcome of {@link PathUtil#visit visiting} a directory
+     * entry.
+     */
+    interface Visitor {
+        /**
+         * Called for every directory entry that passes the filter, before it
+         * is checked for cycles and repeat visits.
+         *
+         * @param dir Directory found
+         */
+        default void listed(final File dir) {
+        }
+
+        /**
+         * Called for a directory that the traversal should enter.
+         *
+         * @param dir Directory to enter
+         * @param attrs Attributes of the directory, or of the link target
+         * @param key File key of the directory
+         */
+        void enter(File dir, BasicFileAttributes attrs, Object key);
+
+        /**
+         * Called for a regular file that the traversal should pass on.
+         *
+         * @param file File found
+         * @param normalized Normalized path of the file
+         * @param attrs Attributes of the file, or of the link target
+         */
+        void file(File file, String normalized, BasicFileAttributes attrs);
+
+        /**
+         * Tells whether the visitor settles repeat visits under
+         * {@link SymlinkPolicy#FOLLOW_ONCE} itself, from the
+         * {@link PathUtil#names(BasicFileAttributes) names} of the entries it
+         * is passed, rather than leaving it to {@link PathUtil#visit visit}.
+         *
+         * @return Whether {@code seen} is left to the visitor
+         */
+        default boolean settlesRepeatVisits() {
+            return false;
+        }
+    }
+
+    /** Directory entries that may lead to a regular file. */
+    enum Names {
+        /** The entry is the file's only name. */
+        ONE,
+        /** The file has hard links, or its link count can't be read. */
+        HARD_LINKED,
+        /** The entry is a symbolic link to the file. */
+        SYMBOLIC_LINK
+    }
+
+    /**
+     * Attributes of a directory entry, or of its link target, read together
+     * with how many names lead to the file so that telling costs no further
+     * system call.
+     */
+    private static final class Named implements BasicFileAttributes {
+        private final Map<String, Object> attrs;
+        private final Names names;
+
+        private Named(final Map<String, Object> attrs, final Names names) {
+            this.attrs = attrs;
+            this.names = names;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return (FileTime) attrs.get("lastModifiedTime");
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return (FileTime) attrs.get("lastAccessTime");
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return (FileTime) attrs.get("creationTime");
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return (Boolean) attrs.get("isRegularFile");
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return (Boolean) attrs.get("isDirectory");
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return (Boolean) attrs.get("isSymbolicLink");
+        }
+
+        @Override
+        public boolean isOther() {
+            return (Boolean) attrs.get("isOther");
+        }
+
+        @Override
+        public long size() {
+            return (Long) attrs.get("size");
+        }
+
+        @Override
+        public Object fileKey() {
+            return attrs.get("fileKey");
+        }
+    }
+
+    private static final class Walk implements Visitor {
+        private final Path basepath;
+        private final Predicate<String> filter;
+        private final BiConsumer<File, String> consumer;
+        private final SymlinkPolicy policy;
+        private final Set<Object> seen;
+        private final Set<Object> ancestors = new HashSet<>();
+
+        private Walk(final Path basepath, final Predicate<String> filter,
+                final BiConsumer<File, String> consumer,
+                final SymlinkPolicy policy, final Set<Object> seen) {
+            this.basepath = basepath;
+            this.filter = filter;
+            this.consumer = consumer;
+            this.policy = policy;
+            this.seen = seen;
+        }
+
+        @Override
+        public void enter(final File dir, final BasicFileAttributes attrs,
+                final Object key) {
+            ancestors.add(key);
+            try (final DirectoryStream<Path> listing = Files
+                    .newDirectoryStream(dir.toPath())) {
+                for (final Path path : listing) {
+                    visit(basepath, path, filter, policy, seen,
+                            ancestors::contains, this);
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Unreadable directory: skip the rest of it
+            } finally {
+                ancestors.remove(key);
+            }
+        }
+
+        @Override
+        public void file(final File file, final String normalized,
+                final BasicFileAttributes attrs) {
+            consumer.accept(file, normalized);
+        }
+    }
+
+    //
+    // STATICS
+    //
+
     static String normalize(final Path basepath, final File subpath) {
         final Path relpath = basepath.relativize(subpath.toPath());
         final String str = relpath.toString();
@@ -29,20 +205,251 @@ class PathUtil {
         }
     }
 
+    /**
+     * Applies a filter to a normalized path and to each of its parent
+     * directories, as a traversal from the base directory would. Use this for
+     * paths that are named directly rather than found by traversal.
+     *
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param normalized Normalized path of a file or directory
+     * @return Whether the filter accepts the path and all of its parents
+     */
+    static boolean isIncludedWithParents(final Predicate<String> filter,
+            final String normalized) {
+        for (int slash = normalized.indexOf('/'); 0 <= slash; slash = normalized
+                .indexOf('/', slash + 1)) {
+            if (!filter.test(normalized.substring(0, slash))) {
+                return false;
+            }
+        }
+        return filter.test(normalized);
+    }
+
     static void traverse(final Path basepath, final File dir,
             final Predicate<String> filter,
             final BiConsumer<File, String> consumer) {
-        final File[] listing = dir.listFiles(file -> filter.apply(normalize(
-                basepath, dir)));
-        if (null != listing) {
-            stream(listing).filter(file -> {
-                if (!file.isDirectory()) {
-                    consumer.accept(file, normalize(basepath, file));
-                    return false;
-                } else {
-                    return true;
-                }
-            }).forEach(subdir -> traverse(basepath, subdir, filter, consumer));
+        traverse(basepath, dir, filter, consumer, FOLLOW_ONCE,
+                new HashSet<>());
+    }
+
+    /**
+     * Traverses a directory tree, passing each regular file accepted by the
+     * filter to the consumer. Directories are read as streams and each file is
+     * passed on as soon as its entry is read, so memory use doesn't grow with
+     * the width of a directory, and a consumer that blocks holds back the
+     * traversal.
+     *
+     * @param basepath Path against which normalized paths are computed
+     * @param dir Directory to traverse
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param consumer Receives each file with its normalized path
+     * @param policy How to treat symbolic links
+     * @param seen File keys of the directories already visited and of the
+     * files visited that have more than one name; only used under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}, and may be shared between calls to
+     * visit each physical file once per run
+     */
+    static void traverse(final Path basepath, final File dir,
+            final Predicate<String> filter,
+            final BiConsumer<File, String> consumer,
+            final SymlinkPolicy policy, final Set<Object> seen) {
+        // The starting directory was asked for explicitly, so always follow it
+        final BasicFileAttributes attrs = attributes(dir.toPath(), FOLLOW);
+        if (null != attrs && attrs.isDirectory()) {
+            final Object key = fileKey(dir.toPath(), attrs);
+            if (FOLLOW_ONCE != policy || seen.add(key)) {
+                new Walk(basepath, filter, consumer, policy, seen).enter(dir,
+                        attrs, key);
+            }
+        }
+    }
+
+    /**
+     * Applies the rules shared by every traversal to one directory entry.
+     * Entries rejected by the filter, links skipped by the policy, dangling
+     * links and unreadable entries are ignored. A directory is entered unless
+     * it is one of the directories being listed, which would be a cycle, or,
+     * under {@link SymlinkPolicy#FOLLOW_ONCE}, was already visited. A regular
+     * file is passed on unless, under {@link SymlinkPolicy#FOLLOW_ONCE}, it
+     * was already visited under another name.
+     *
+     * <p>
+     * Since each directory is listed at most once under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}, a file can only be reached twice
+     * through a symbolic link or a hard link to it, so only the keys of such
+     * files are recorded and {@code seen} doesn't grow with every file in the
+     * tree. A link to a file whose directory has already been listed is
+     * skipped, since the file was reached under its own name there. Where the
+     * platform can't report link counts, every file is recorded.
+     * </p>
+     *
+     * @param basepath Path against which normalized paths are computed
+     * @param path Directory entry
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param policy How to treat symbolic links
+     * @param seen File keys of the directories already visited and of the
+     * files visited that have more than one name; only used under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}
+     * @param ancestors Tests whether a file key is that of the directory being
+     * listed or one of its ancestors
+     * @param visitor Receives the outcome
+     */
+    static void visit(final Path basepath, final Path path,
+            final Predicate<String> filter, final SymlinkPolicy policy,
+            final Set<Object> seen, final Predicate<Object> ancestors,
+            final Visitor visitor) {
+        final File file = path.toFile();
+        final String normalized = normalize(basepath, file);
+        if (!filter.test(normalized)) {
+            return;
+        }
+        final BasicFileAttributes attrs = FOLLOW_ONCE == policy ? named(path)
+                : attributes(path, policy);
+        if (null == attrs) {
+            return; // Skipped link, dangling link or I/O error
+        }
+        final Object key = fileKey(path, attrs);
+        final boolean once = FOLLOW_ONCE == policy
+                && !visitor.settlesRepeatVisits();
+        if (attrs.isDirectory()) {
+            visitor.listed(file);
+            if (!ancestors.test(key) && (!once || seen.add(key))) {
+                visitor.enter(file, attrs, key);
+            }
+        } else if (attrs.isRegularFile()) {
+            if (!once || isFirstVisit(path, attrs, key, seen)) {
+                visitor.file(file, normalized, attrs);
+            }
+        }
+    }
+
+    /**
+     * Returns a key that identifies the physical file behind a path, so that
+     * several paths leading to the same file can be recognized.
+     *
+     * @param path Path to a file or directory
+     * @param attrs Attributes read from the path
+     * @return File key, or the real path if the platform has no file keys
+     */
+    static Object fileKey(final Path path, final BasicFileAttributes attrs) {
+        final Object key = attrs.fileKey();
+        if (null != key) {
+            return key;
+        }
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Tells whether a directory entry is its file's only name.
+     *
+     * @param attrs Attributes passed by {@link #visit visit} under
+     * {@link SymlinkPolicy#FOLLOW_ONCE}
+     * @return Whether the entry is the only name, a symbolic link or one of
+     * several hard links
+     */
+    static Names names(final BasicFileAttributes attrs) {
+        // Attributes read otherwise can't tell, so assume other names
+        return attrs instanceof Named ? ((Named) attrs).names
+                : Names.HARD_LINKED;
+    }
+
+    /**
+     * Tells whether the directory holding the target of a symbolic link has
+     * been listed, in which case the target was reached under its own name.
+     *
+     * @param link Symbolic link to a file
+     * @param seen File keys of the directories already visited
+     * @return Whether the target's directory is among {@code seen}
+     */
+    static boolean isListed(final Path link, final Set<Object> seen) {
+        try {
+            final Path dir = link.toRealPath().getParent();
+            final BasicFileAttributes attrs = attributes(dir, FOLLOW);
+            return null != attrs && seen.contains(fileKey(dir, attrs));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the attributes of a path, following a symbolic link unless the
+     * policy is {@link SymlinkPolicy#SKIP}.
+     *
+     * @param path Path to read
+     * @param policy How to treat symbolic links
+     * @return Attributes of the path or the link target, or {@code null} if
+     * the path is a skipped link, a dangling link or can't be read
+     */
+    static BasicFileAttributes attributes(final Path path,
+            final SymlinkPolicy policy) {
+        try {
+            final BasicFileAttributes attrs = Files.readAttributes(path,
+                    BasicFileAttributes.class, NOFOLLOW_LINKS);
+            if (!attrs.isSymbolicLink()) {
+                return attrs;
+            } else if (SKIP == policy) {
+                return null;
+            } else {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    // The link count comes with the lstat, so it takes no extra system call
+    private static final String UNIX_ATTRIBUTES = "unix:size,lastModifiedTime,"
+            + "lastAccessTime,creationTime,isRegularFile,isDirectory,"
+            + "isSymbolicLink,isOther,fileKey,nlink";
+    private static final String BASIC_ATTRIBUTES = "basic:*";
+
+    private static BasicFileAttributes named(final Path path) {
+        try {
+            Map<String, Object> attrs;
+            try {
+                attrs = Files.readAttributes(path, UNIX_ATTRIBUTES,
+                        NOFOLLOW_LINKS);
+            } catch (UnsupportedOperationException e) {
+                attrs = Files.readAttributes(path, BASIC_ATTRIBUTES,
+                        NOFOLLOW_LINKS);
+            }
+            if ((Boolean) attrs.get("isSymbolicLink")) {
+                return new Named(Files.readAttributes(path, BASIC_ATTRIBUTES),
+                        Names.SYMBOLIC_LINK);
+            }
+            final Integer nlink = (Integer) attrs.get("nlink");
+            // Without a link count, assume the file may have other names
+            return new Named(attrs, null != nlink && 1 == nlink ? Names.ONE
+                    : Names.HARD_LINKED);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isFirstVisit(final Path path,
+            final BasicFileAttributes attrs, final Object key,
+            final Set<Object> seen) {
+        if (seen.contains(key)) {
+            return false;
         }
+        switch (names(attrs)) {
+        case SYMBOLIC_LINK:
+            return !isListed(path, seen) && seen.add(key);
+        case HARD_LINKED:
+            return seen.add(key);
+        default:
+            return true;
+        } // switch
     }
 }
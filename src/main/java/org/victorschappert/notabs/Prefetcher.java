@@ -0,0 +1,213 @@
+package org.victorschappert.notabs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Read-ahead stage that overlaps file I/O with scanning.
+ * </p>
+ *
+ * <p>
+ * Files submitted to the prefetcher are read on background threads into
+ * pooled buffers, up to {@code depth} files ahead of the scanner, while the
+ * submitting thread scans the files read earlier. The pool holds
+ * {@code depth} buffers of {@code memoryBudget / depth} bytes each, so the
+ * memory used never exceeds the budget. Files too large for one buffer are
+ * not prefetched: they are handed to the sink without content, in order,
+ * and the sink streams them from disk itself.
+ * </p>
+ *
+ * <p>
+ * Only the submitting thread calls the sink, and it does so in submission
+ * order.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class Prefetcher implements AutoCloseable {
+
+    //
+    // TYPES
+    //
+
+    /**
+     * Receives files in submission order.
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * @param file File to scan
+         * @param normalized Normalized path of the file
+         * @param content Entire content of the file, or {@code null} if it
+         * wasn't prefetched
+         * @param length Number of valid bytes in {@code content}
+         */
+        void accept(File file, String normalized, byte[] content, int length);
+    }
+
+    private static final class Pending {
+        private final File file;
+        private final String normalized;
+        private final byte[] buffer;
+        private final Future<Integer> length; // -1 if file outgrew buffer
+
+        private Pending(final File file, final String normalized,
+                final byte[] buffer, final Future<Integer> length) {
+            this.file = file;
+            this.normalized = normalized;
+            this.buffer = buffer;
+            this.length = length;
+        }
+    }
+
+    //
+    // DATA
+    //
+
+    private final int depth;
+    private final int bufferSize;
+    private final Sink sink;
+    private final ExecutorService readers;
+    private final Deque<byte[]> pool;
+    private final Deque<Pending> pending;
+
+    //
+    // CONSTRUCTORS
+    //
+
+    /**
+     * @param depth Maximum number of files read ahead of the scanner
+     * @param memoryBudget Total bytes of buffer memory to use
+     * @param sink Receives each file, in order, with its content if it was
+     * prefetched
+     */
+    Prefetcher(final int depth, final long memoryBudget, final Sink sink) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(
+                    "depth must be positive, but is " + depth);
+        }
+        this.depth = depth;
+        this.bufferSize = (int) Math.max(Constants.BUFFER_SIZE,
+                Math.min(Integer.MAX_VALUE - 8, memoryBudget / depth));
+        this.sink = sink;
+        this.readers = Executors.newFixedThreadPool(depth, r -> {
+            final Thread thread = new Thread(r, "notabs-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pool = new ArrayDeque<>(depth);
+        this.pending = new ArrayDeque<>(depth);
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Queues a file for reading, first passing the oldest files to the sink
+     * if {@code depth} files are already queued.
+     *
+     * @param file File to scan
+     * @param normalized Normalized path of the file
+     * @throws UncheckedIOException If reading a queued file failed
+     */
+    void submit(final File file, final String normalized) {
+        if (bufferSize < file.length()) {
+            finish();
+            sink.accept(file, normalized, null, 0);
+            return;
+        }
+        while (depth <= pending.size()) {
+            drainOne();
+        }
+        final byte[] buffer = pool.isEmpty() ? new byte[bufferSize] : pool
+                .pop();
+        pending.add(new Pending(file, normalized, buffer, readers
+                .submit(() -> load(file, buffer))));
+    }
+
+    /**
+     * Passes every queued file to the sink.
+     *
+     * @throws UncheckedIOException If reading a queued file failed
+     */
+    void finish() {
+        while (!pending.isEmpty()) {
+            drainOne();
+        }
+    }
+
+    //
+    // INTERFACE: AutoCloseable
+    //
+
+    @Override
+    public void close() {
+        for (final Pending read : pending) {
+            read.length.cancel(true);
+        }
+        pending.clear();
+        readers.shutdownNow();
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private void drainOne() {
+        final Pending read = pending.remove();
+        final int length;
+        try {
+            length = read.length.get();
+        } catch (InterruptedException e) {
+            // The read may still be filling the buffer, so don't reuse it
+            read.length.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new IOException(
+                    "Interrupted while prefetching", e));
+        } catch (ExecutionException e) {
+            pool.push(read.buffer);
+            final Throwable cause = e.getCause();
+            throw new UncheckedIOException(cause instanceof IOException
+                    ? (IOException) cause : new IOException("Failed to read "
+                            + read.file + ": " + cause, cause));
+        }
+        try {
+            if (length < 0) { // Grew since it was listed
+                sink.accept(read.file, read.normalized, null, 0);
+            } else {
+                sink.accept(read.file, read.normalized, read.buffer, length);
+            }
+        } finally {
+            pool.push(read.buffer);
+        }
+    }
+
+    private static int load(final File file, final byte[] buffer)
+            throws IOException {
+        int length = 0;
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            int n;
+            while (length < buffer.length
+                    && 0 < (n = in.read(buffer, length, buffer.length
+                            - length))) {
+                length += n;
+            }
+            if (length == buffer.length && 0 <= in.read()) {
+                length = -1;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,322 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Content-addressed cache of scan verdicts, shareable between worktrees, CI
+ * agents and concurrent builds.
+ * </p>
+ *
+ * <p>
+ * Each entry is a small file named after the SHA-256 digest of the plugin
+ * version and scan configuration followed by the file content, so byte-identical files share
+ * an entry wherever they are checked out. Entries are written to a temporary
+ * file and atomically renamed into place, so concurrent readers see either
+ * no entry or a complete one. Hits refresh the entry's modification time, and
+ * {@link #evict()} removes the least recently used entries once the cache
+ * holds more than its maximum number of entries. Eviction only lists the
+ * whole cache when this instance has added entries and a sample of the cache
+ * suggests it is over its maximum.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class ResultCache {
+
+    //
+    // DATA
+    //
+
+    private final Path dir;
+    private final int maxEntries;
+    private final CodeUnit unit;
+    private final byte[] configKey;
+    private volatile String lastWritten; // Key of the last entry written
+
+    //
+    // CONSTRUCTORS
+    //
+
+    /**
+     * @param dir Cache directory, created if it doesn't exist
+     * @param maxEntries Number of entries above which {@link #evict()} removes
+     * the least recently used ones
+     * @param unit Code unit of the encoding used when scanning
+     * @param version Version of the plugin, so that verdicts reached by one
+     * version's scanner aren't reused by another's
+     */
+    ResultCache(final Path dir, final int maxEntries, final CodeUnit unit,
+            final String version) {
+        this.dir = dir;
+        this.maxEntries = maxEntries;
+        this.unit = unit;
+        this.configKey = (FORMAT + ':' + version + ':' + unit + ':')
+                .getBytes(UTF_8);
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * Computes the cache key of a file from its content and the scan
+     * configuration.
+     *
+     * @param file File to scan
+     * @return Hex-encoded digest
+     * @throws IOException If the file can't be read
+     */
+    String key(final Path file) throws IOException {
+        final MessageDigest digest = newKeyDigest();
+        final byte[] buffer = new byte[Constants.BUFFER_SIZE];
+        try (final InputStream in = Files.newInputStream(file)) {
+            int n;
+            while (0 < (n = in.read(buffer))) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * Computes the cache key of a file whose content is already in memory.
+     *
+     * @param content Buffer holding the file content
+     * @param length Number of valid bytes in {@code content}
+     * @return Hex-encoded digest
+     */
+    String key(final byte[] content, final int length) {
+        final MessageDigest digest = newKeyDigest();
+        digest.update(content, 0, length);
+        return key(digest);
+    }
+
+    /**
+     * Returns a digest primed with the scan configuration, so that a file's
+     * key can be computed while the file is being read for some other
+     * purpose.
+     *
+     * @return Digest to be updated with the entire file content
+     * @see #key(MessageDigest)
+     */
+    MessageDigest newKeyDigest() {
+        final MessageDigest digest = newDigest();
+        digest.update(configKey);
+        return digest;
+    }
+
+    /**
+     * Completes a key computation begun with {@link #newKeyDigest()}.
+     *
+     * @param digest Digest updated with the entire file content
+     * @return Hex-encoded digest
+     */
+    String key(final MessageDigest digest) {
+        return hex(digest.digest());
+    }
+
+    /**
+     * Looks up a verdict. Any problem reading the cache is treated as a miss.
+     *
+     * @param key Key returned by {@link #key(Path)}
+     * @return Cached result, or {@code null} if there is none
+     */
+    ScanResult get(final String key) {
+        final Path entry = entry(key);
+        try {
+            final String[] fields = new String(Files.readAllBytes(entry),
+                    US_ASCII).trim().split(" ");
+            final ScanResult result = decode(fields);
+            if (null != result) {
+                Files.setLastModifiedTime(entry,
+                        FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a verdict. Failure to write the cache is silently ignored.
+     *
+     * @param key Key returned by {@link #key(Path)}
+     * @param result Result of scanning the file
+     */
+    void put(final String key, final ScanResult result) {
+        final Path entry = entry(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(entry.getParent());
+            temp = Files.createTempFile(entry.getParent(), key, ".tmp");
+            Files.write(temp, encode(result).getBytes(US_ASCII));
+            try {
+                Files.move(temp, entry, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, REPLACE_EXISTING);
+            }
+            temp = null;
+            lastWritten = key;
+        } catch (IOException e) {
+            // Caching is best-effort
+        } finally {
+            if (null != temp) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Deletes the least recently used entries if there are more than the
+     * maximum, leaving the cache at 90% of the maximum. Does nothing unless
+     * this instance has written an entry and the fan-out directory of that
+     * entry, scaled up by the number of fan-out directories, suggests the
+     * cache is over its maximum. Entries deleted concurrently by another
+     * build are ignored.
+     *
+     * @throws IOException If the cache directory can't be listed
+     */
+    void evict() throws IOException {
+        final String sample = lastWritten;
+        if (null == sample || estimateEntries(sample) <= maxEntries) {
+            return;
+        }
+        final List<Map.Entry<FileTime, Path>> entries = new ArrayList<>();
+        try (final DirectoryStream<Path> fanout = Files
+                .newDirectoryStream(dir)) {
+            for (final Path sub : fanout) {
+                if (Files.isDirectory(sub)) {
+                    try (final DirectoryStream<Path> files = Files
+                            .newDirectoryStream(sub, "*" + SUFFIX)) {
+                        for (final Path file : files) {
+                            entries.add(new SimpleImmutableEntry<>(
+                                    lastModified(file), file));
+                        }
+                    } catch (NoSuchFileException e) {
+                        // Removed concurrently
+                    }
+                }
+            } // for
+        }
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.sort(Map.Entry.comparingByKey());
+        final int excess = entries.size() - maxEntries * 9 / 10;
+        for (int k = 0; k < excess; ++k) {
+            Files.deleteIfExists(entries.get(k).getValue());
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static final String FORMAT = "notabs-cache-2";
+    private static final String SUFFIX = ".verdict";
+    private static final int FANOUT = 256; // Two hex digits
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private long estimateEntries(final String sample) throws IOException {
+        // Keys are uniformly distributed over the fan-out directories, so
+        // listing one of them, without stat-ing its entries, is enough
+        long count = 0L;
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(
+                entry(sample).getParent(), "*" + SUFFIX)) {
+            for (final Iterator<Path> i = files.iterator(); i.hasNext(); i
+                    .next()) {
+                ++count;
+            }
+        } catch (NoSuchFileException e) {
+            return 0L; // Removed concurrently
+        }
+        return count * FANOUT;
+    }
+
+    private Path entry(final String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private static String encode(final ScanResult result) {
+        if (result.isBinary()) {
+            return "binary";
+        } else if (result.hasTab()) {
+            return "tab " + result.getByteCount() + ' '
+                    + result.getTabOffset() + ' ' + result.getTabLine() + ' '
+                    + result.getTabColumn();
+        } else {
+            return "clean " + result.getByteCount();
+        }
+    }
+
+    private ScanResult decode(final String[] fields) {
+        final int unitSize = unit.size();
+        if ("binary".equals(fields[0]) && 1 == fields.length) {
+            return new ScanResult(unitSize, 0L, 0L, 0L, true, -1L, 0L, 0L);
+        } else if ("clean".equals(fields[0]) && 2 == fields.length) {
+            return new ScanResult(unitSize, Long.parseLong(fields[1]), 0L,
+                    0L, false, -1L, 0L, 0L);
+        } else if ("tab".equals(fields[0]) && 5 == fields.length) {
+            return new ScanResult(unitSize, Long.parseLong(fields[1]), 0L,
+                    0L, false, Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]) - 1L,
+                    (Long.parseLong(fields[4]) - 1L) * unitSize);
+        } else {
+            return null;
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JRE has SHA-256
+        }
+    }
+
+    static String hex(final byte[] bytes) {
+        final char[] chars = new char[2 * bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            chars[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private static FileTime lastModified(final Path entry) {
+        try {
+            return Files.getLastModifiedTime(entry);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0L);
+        }
+    }
+}
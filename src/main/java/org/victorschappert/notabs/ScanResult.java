@@ -0,0 +1,130 @@
+package org.victorschappert.notabs;
+
+/**
+ * <p>
+ * Immutable result of scanning a contiguous byte range of a file for tabs.
+ * </p>
+ *
+ * <p>
+ * Results for adjacent ranges can be combined with {@link #merge(ScanResult)},
+ * which translates the second range's local offsets, line numbers and columns
+ * into positions relative to the start of the first range. Merging is
+ * associative, so the ranges of a large file can be scanned independently and
+ * reduced in order.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class ScanResult {
+
+    //
+    // DATA
+    //
+
+    private final int unitSize;
+    private final long byteCount;
+    private final long lineCount; // Number of line feeds in the range
+    private final long tail; // Bytes after the last line feed in the range
+    private final boolean binary;
+    private final long tabOffset; // -1 if no tab found
+    private final long tabLine; // Line feeds in the range before the tab
+    private final long tabColumn; // Bytes between line start and the tab
+
+    //
+    // CONSTRUCTORS
+    //
+
+    ScanResult(final int unitSize, final long byteCount, final long lineCount,
+            final long tail, final boolean binary, final long tabOffset,
+            final long tabLine, final long tabColumn) {
+        this.unitSize = unitSize;
+        this.byteCount = byteCount;
+        this.lineCount = lineCount;
+        this.tail = tail;
+        this.binary = binary;
+        this.tabOffset = tabOffset;
+        this.tabLine = tabLine;
+        this.tabColumn = tabColumn;
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * Indicates whether a NUL code unit was found, meaning the file should be
+     * treated as binary.
+     *
+     * @return Whether the range contains a NUL
+     */
+    boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Indicates whether a tab was found in a text range.
+     *
+     * @return Whether the range is text and contains a tab
+     */
+    boolean hasTab() {
+        return !binary && 0L <= tabOffset;
+    }
+
+    long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * @return Byte offset of the first tab, or -1 if there is none
+     */
+    long getTabOffset() {
+        return tabOffset;
+    }
+
+    /**
+     * @return One-based line number of the first tab
+     */
+    long getTabLine() {
+        return tabLine + 1L;
+    }
+
+    /**
+     * @return One-based column, in code units, of the first tab
+     */
+    long getTabColumn() {
+        return tabColumn / unitSize + 1L;
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Combines this result with the result for the range immediately
+     * following it.
+     *
+     * @param next Result for the range that starts where this one ends
+     * @return Result covering both ranges
+     */
+    ScanResult merge(final ScanResult next) {
+        if (unitSize != next.unitSize) {
+            throw new IllegalArgumentException("Code unit size mismatch: "
+                    + unitSize + " vs. " + next.unitSize);
+        }
+        final long mergedTail = 0L < next.lineCount ? next.tail : tail
+                + next.tail;
+        if (0L <= tabOffset || next.tabOffset < 0L) {
+            return new ScanResult(unitSize, byteCount + next.byteCount,
+                    lineCount + next.lineCount, mergedTail, binary
+                            || next.binary, tabOffset, tabLine, tabColumn);
+        } else {
+            return new ScanResult(unitSize, byteCount + next.byteCount,
+                    lineCount + next.lineCount, mergedTail, binary
+                            || next.binary, byteCount + next.tabOffset,
+                    lineCount + next.tabLine,
+                    0L < next.tabLine ? next.tabColumn : tail
+                            + next.tabColumn);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.victorschappert.notabs;
+
+import static java.util.Arrays.stream;
+import static org.victorschappert.notabs.PathUtil.normalize;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Resource;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * <p>
+ * Set of filesystem roots to scan, built from the source roots and resource
+ * directories of a Maven project rather than from its whole base directory.
+ * </p>
+ *
+ * <p>
+ * Each root is walked at most once. Roots listed more than once have their
+ * include/exclude selectors combined, roots lying inside a root that has no
+ * selectors are dropped entirely, and a file reachable from two overlapping
+ * roots is only passed to the consumer once. Only the files of roots that
+ * overlap another root are remembered for this, by path, so a walk of
+ * disjoint roots uses no memory per file. A file that two disjoint roots
+ * reach through symbolic links is passed on once for each root.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class ScanRoots {
+
+    //
+    // TYPES
+    //
+
+    private static final class Selector {
+        private final Pattern[] includes;
+        private final Pattern[] excludes;
+
+        private Selector(final List<String> includes,
+                final List<String> excludes) {
+            this.includes = includes.stream().map(GlobParser::parse)
+                    .toArray(Pattern[]::new);
+            this.excludes = excludes.stream().map(GlobParser::parse)
+                    .toArray(Pattern[]::new);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(includes) + '-'
+                    + Arrays.toString(excludes);
+        }
+
+        private boolean isUnrestricted() {
+            return 0 == includes.length && 0 == excludes.length;
+        }
+
+        private boolean matches(final String relpath) {
+            return (0 == includes.length || stream(includes).anyMatch(
+                    pat -> pat.matcher(relpath).matches()))
+                    && !stream(excludes).anyMatch(
+                            pat -> pat.matcher(relpath).matches());
+        }
+    }
+
+    /**
+     * Traversal used to walk each directory root.
+     */
+    @FunctionalInterface
+    interface Traverser {
+        void traverse(Path basepath, File dir, Predicate<String> filter,
+                BiConsumer<File, String> consumer, SymlinkPolicy policy,
+                Set<Object> seen);
+    }
+
+    //
+    // DATA
+    //
+
+    private final Map<Path, List<Selector>> roots = new TreeMap<>();
+
+    //
+    // STATICS
+    //
+
+    /**
+     * Collects the compile and test source roots, the resource and test
+     * resource directories (with their includes and excludes), the POM file
+     * and any extra roots of a project.
+     *
+     * @param project Project whose model supplies the roots
+     * @param extraRoots Additional files or directories to scan in full, or
+     * {@code null}
+     * @return Roots to scan
+     */
+    static ScanRoots fromProject(final MavenProject project,
+            final List<File> extraRoots) {
+        final ScanRoots result = new ScanRoots();
+        final List<String> none = new ArrayList<>();
+        for (final String dir : project.getCompileSourceRoots()) {
+            result.add(new File(dir).toPath(), none, none);
+        }
+        for (final String dir : project.getTestCompileSourceRoots()) {
+            result.add(new File(dir).toPath(), none, none);
+        }
+        final List<Resource> resources = new ArrayList<>();
+        resources.addAll(project.getResources());
+        resources.addAll(project.getTestResources());
+        for (final Resource resource : resources) {
+            result.add(new File(resource.getDirectory()).toPath(),
+                    resource.getIncludes(), resource.getExcludes());
+        }
+        if (null != project.getFile()) {
+            result.add(project.getFile().toPath(), none, none);
+        }
+        if (null != extraRoots) {
+            for (final File root : extraRoots) {
+                result.add(root.toPath(), none, none);
+            }
+        }
+        return result;
+    }
+
+    //
+    // MUTATORS
+    //
+
+    /**
+     * Adds a root directory or file.
+     *
+     * @param root Directory or file to scan
+     * @param includes Ant-style globs, relative to the root, selecting the
+     * files to scan; empty to select all files
+     * @param excludes Ant-style globs, relative to the root, of files to skip
+     */
+    void add(final Path root, final List<String> includes,
+            final List<String> excludes) {
+        roots.computeIfAbsent(root.toAbsolutePath().normalize(),
+                key -> new ArrayList<>()).add(new Selector(includes, excludes));
+    }
+
+    //
+    // ACCESSORS
+    //
+
+    /**
+     * Returns the roots that a walk visits, which are those not covered by an
+     * unrestricted ancestor root.
+     *
+     * @return Absolute root directories and files, in walk order
+     */
+    List<Path> getRoots() {
+        final List<Path> result = new ArrayList<>();
+        final List<Path> unrestricted = new ArrayList<>();
+        for (final Map.Entry<Path, List<Selector>> entry : roots.entrySet()) {
+            final Path root = entry.getKey();
+            if (unrestricted.stream().noneMatch(root::startsWith)) {
+                result.add(root);
+                if (entry.getValue().stream().anyMatch(
+                        Selector::isUnrestricted)) {
+                    unrestricted.add(root);
+                }
+            }
+        } // for
+        return result;
+    }
+
+    /**
+     * Indicates whether a path is a root or lies inside a root.
+     *
+     * @param path File or directory
+     * @return Whether a walk could reach the path
+     */
+    boolean contains(final Path path) {
+        final Path abs = path.toAbsolutePath().normalize();
+        return roots.keySet().stream().anyMatch(abs::startsWith);
+    }
+
+    /**
+     * Indicates whether a walk would pass a file to its consumer, ignoring
+     * the walk's filter and whether the file exists.
+     *
+     * @param file File found other than by walking, <em>eg</em> reported as
+     * changed
+     * @return Whether the file is a root or is selected by a root containing
+     * it
+     */
+    boolean selects(final Path file) {
+        final Path abs = file.toAbsolutePath().normalize();
+        for (final Map.Entry<Path, List<Selector>> entry : roots.entrySet()) {
+            final Path root = entry.getKey();
+            if (abs.equals(root)) {
+                return true;
+            } else if (abs.startsWith(root)) {
+                final String relpath = normalize(root, abs.toFile());
+                if (entry.getValue().stream().anyMatch(
+                        s -> s.matches(relpath))) {
+                    return true;
+                }
+            }
+        } // for
+        return false;
+    }
+
+    /**
+     * Walks every root that isn't covered by an unrestricted ancestor root.
+     * A root is skipped if the filter rejects it or one of its parent
+     * directories, as a walk of the base directory would.
+     *
+     * @param basepath Path against which the consumer's normalized paths and
+     * the filter are computed
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param consumer Receives each selected file with its normalized path
+     * @param policy How to treat symbolic links
+     */
+    void walk(final Path basepath, final Predicate<String> filter,
+            final BiConsumer<File, String> consumer,
+            final SymlinkPolicy policy) {
+        walk(basepath, filter, consumer, policy, PathUtil::traverse);
+    }
+
+    /**
+     * As {@link #walk(Path, Predicate, BiConsumer, SymlinkPolicy)}, but using
+     * the given traversal for directory roots.
+     *
+     * @param basepath Path against which the consumer's normalized paths and
+     * the filter are computed
+     * @param filter Filter applied to normalized paths of files and
+     * directories
+     * @param consumer Receives each selected file with its normalized path
+     * @param policy How to treat symbolic links
+     * @param traverser Traversal used for each directory root
+     */
+    void walk(final Path basepath, final Predicate<String> filter,
+            final BiConsumer<File, String> consumer,
+            final SymlinkPolicy policy, final Traverser traverser) {
+        final List<Path> walked = getRoots();
+        final Set<String> visited = new HashSet<>();
+        for (final Path root : walked) {
+            final String rootname = normalize(basepath, root.toFile());
+            if (!rootname.isEmpty()
+                    && !PathUtil.isIncludedWithParents(filter, rootname)) {
+                continue;
+            }
+            final List<Selector> selectors = roots.get(root);
+            // Nested roots reach a shared file under the same path
+            final boolean overlaps = walked.stream().anyMatch(
+                    other -> !other.equals(root)
+                            && (other.startsWith(root) || root
+                                    .startsWith(other)));
+            final BiConsumer<File, String> selected = (file, normalized) -> {
+                final String relpath = normalize(root, file);
+                if (selectors.stream().anyMatch(s -> s.matches(relpath))
+                        && (!overlaps || visited.add(normalized))) {
+                    consumer.accept(file, normalized);
+                }
+            };
+            if (Files.isDirectory(root)) {
+                traverser.traverse(basepath, root.toFile(), filter, selected,
+                        policy, new HashSet<>());
+            } else if (Files.isRegularFile(root)) {
+                if (!overlaps || visited.add(rootname)) {
+                    consumer.accept(root.toFile(), rootname);
+                }
+            }
+        } // for
+    }
+
+    //
+    // ANCESTOR CLASS: Object
+    //
+
+    /**
+     * @return Description of the roots and their selectors, which is the same
+     * for two sets of roots exactly when they select the same files
+     */
+    @Override
+    public String toString() {
+        return roots.toString();
+    }
+}
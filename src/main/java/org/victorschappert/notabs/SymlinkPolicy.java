@@ -0,0 +1,26 @@
+package org.victorschappert.notabs;
+
+/**
+ * <p>
+ * How directory traversal treats symbolic links.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+enum SymlinkPolicy {
+
+    /** Symbolic links are ignored. */
+    SKIP,
+    /**
+     * Symbolic links are followed, except for directory links that lead back
+     * into a directory already being traversed.
+     */
+    FOLLOW,
+    /**
+     * Symbolic links are followed, but each physical directory is traversed
+     * and each physical file is scanned at most once, however many paths lead
+     * to it.
+     */
+    FOLLOW_ONCE
+}
@@ -0,0 +1,232 @@
+package org.victorschappert.notabs;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.LongStream;
+
+/**
+ * <p>
+ * Scans text for tab characters.
+ * </p>
+ *
+ * <p>
+ * Input is examined one code unit at a time, where the code unit size and
+ * byte order are derived from the file encoding (<em>eg</em> 2 bytes, most
+ * significant first, for UTF-16BE). A code unit is a tab (or line feed) if
+ * its value is exactly U+0009 (or U+000A) in that byte order. A code unit
+ * consisting only of zero bytes is a NUL and marks the file as binary.
+ * </p>
+ *
+ * <p>
+ * Files larger than a configurable threshold are split into chunks whose
+ * boundaries are aligned to the code unit size, and the chunks are scanned in
+ * parallel.
+ * </p>
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+final class TabChecker {
+
+    //
+    // TYPES
+    //
+
+    /** Stream reading at most a given number of bytes from another. */
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        private LimitedInputStream(final InputStream in, final long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining < 1L) {
+                return -1;
+            }
+            final int b = in.read();
+            if (0 <= b) {
+                --remaining;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len)
+                throws IOException {
+            if (remaining < 1L) {
+                return -1;
+            }
+            final int n = in.read(b, off, (int) min(len, remaining));
+            if (0 < n) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = in.skip(min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) min(in.available(), remaining);
+        }
+    }
+
+    private TabChecker() {
+        throw new IllegalStateException("Can't instantiate");
+    }
+
+    //
+    // STATICS
+    //
+
+    /**
+     * Scans a stream from the start of a text to the end. If the byte order
+     * of the unit is given by a byte order mark, it is settled from the first
+     * code unit read. Columns on the first line are counted from after a byte
+     * order mark, which is not part of the text.
+     *
+     * @param in Stream to scan (not closed by this method)
+     * @param unit Code unit of the encoding
+     * @return Scan result with offsets relative to the starting position
+     * @throws IOException If reading the stream fails
+     */
+    static ScanResult check(final InputStream in, final CodeUnit unit)
+            throws IOException {
+        return check(in, unit, true);
+    }
+
+    /**
+     * Scans a file, splitting it into chunks which are scanned in parallel if
+     * it is larger than {@code chunkThreshold} bytes.
+     *
+     * @param file File to scan
+     * @param unit Code unit of the encoding
+     * @param chunkThreshold Size above which the file is scanned in chunks
+     * @param chunkSize Target chunk size, rounded down to a whole number of
+     * code units
+     * @return Scan result with offsets relative to the start of the file
+     * @throws IOException If reading the file fails
+     */
+    static ScanResult check(final Path file, final CodeUnit unit,
+            final long chunkThreshold, final long chunkSize)
+            throws IOException {
+        final long size = Files.size(file);
+        if (size <= chunkThreshold) {
+            try (final InputStream in = Files.newInputStream(file)) {
+                return check(in, unit);
+            }
+        }
+        // Chunks after the first can't see the byte order mark
+        final CodeUnit resolved = unit.resolve(file);
+        final int unitSize = unit.size();
+        // The first chunk must hold the whole byte order mark
+        final long alignedChunkSize = max(MAX_MARK_SIZE, chunkSize - chunkSize
+                % unitSize);
+        final long chunks = (size + alignedChunkSize - 1L) / alignedChunkSize;
+        try {
+            return LongStream
+                    .range(0L, chunks)
+                    .parallel()
+                    .mapToObj(
+                            i -> checkChunk(file, resolved, i
+                                    * alignedChunkSize, min(alignedChunkSize,
+                                    size - i * alignedChunkSize)))
+                    .reduce(ScanResult::merge).get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static final long MAX_MARK_SIZE = 4L;
+
+    // Only the start of a text can hold a byte order mark; U+FEFF at the
+    // start of a later chunk is a character
+    private static ScanResult check(final InputStream in, final CodeUnit unit,
+            final boolean atStart) throws IOException {
+        final int unitSize = unit.size();
+        int tab = unit.valueOf('\t');
+        int lineFeed = unit.valueOf('\n');
+        final byte[] buffer = new byte[Constants.BUFFER_SIZE];
+        final NulCheckingInputStream nis = new NulCheckingInputStream(in,
+                unitSize, Constants.BUFFER_SIZE);
+        long pos = 0L;
+        long lines = 0L;
+        long lineStart = 0L;
+        long tabOffset = -1L;
+        long tabLine = 0L;
+        long tabColumn = 0L;
+        long head = 0L; // Bytes so far, while they may be a byte order mark
+        int unitPos = 0;
+        int value = 0;
+        CodeUnit resolved = unit;
+        try {
+            int n;
+            while (0 < (n = nis.read(buffer, 0, buffer.length))) {
+                for (int i = 0; i < n; ++i, ++pos) {
+                    value = value << 8 | buffer[i] & 0xff;
+                    if (unitSize == ++unitPos) {
+                        if (atStart && pos < MAX_MARK_SIZE) {
+                            if (unitSize == pos + 1L) { // First code unit
+                                resolved = unit.resolve(value);
+                                tab = resolved.valueOf('\t');
+                                lineFeed = resolved.valueOf('\n');
+                            }
+                            head = head << 8 * unitSize | value & 0xffffffffL;
+                            if (resolved.isByteOrderMark(head, (int) pos + 1)) {
+                                lineStart = pos + 1L; // Not part of the text
+                            }
+                        }
+                        if (lineFeed == value) {
+                            ++lines;
+                            lineStart = pos + 1L;
+                        } else if (tab == value && tabOffset < 0L) {
+                            tabOffset = pos + 1L - unitSize;
+                            tabLine = lines;
+                            tabColumn = tabOffset - lineStart;
+                        }
+                        unitPos = value = 0;
+                    }
+                } // for
+            } // while
+        } catch (NulInInputException e) {
+            return new ScanResult(unitSize, pos, lines, pos - lineStart, true,
+                    -1L, 0L, 0L);
+        }
+        return new ScanResult(unitSize, pos, lines, pos - lineStart, false,
+                tabOffset, tabLine, tabColumn);
+    }
+
+    private static ScanResult checkChunk(final Path file, final CodeUnit unit,
+            final long start, final long length) {
+        try (final FileChannel channel = FileChannel.open(file, READ)) {
+            channel.position(start);
+            return check(new LimitedInputStream(
+                    Channels.newInputStream(channel), length), unit,
+                    0L == start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
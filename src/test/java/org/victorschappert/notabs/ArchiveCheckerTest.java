@@ -0,0 +1,70 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ArchiveChecker}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class ArchiveCheckerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEntries() throws IOException {
+        final Path archive = folder.newFile().toPath();
+        final StringBuilder big = new StringBuilder();
+        for (int k = 0; k < 10000; ++k) {
+            big.append("line ").append(k).append('\n');
+        }
+        big.append("\tlast\n");
+        try (final OutputStream out = Files.newOutputStream(archive);
+                final ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.putNextEntry(new ZipEntry("dir/"));
+            put(zip, "dir/clean.txt", "no tabs here\n".getBytes(UTF_8));
+            put(zip, "dir/tab.txt", "a\nb\tc\n".getBytes(UTF_8));
+            put(zip, "big.txt", big.toString().getBytes(UTF_8));
+            put(zip, "data.bin", new byte[] { 1, 0, 2, '\t' });
+            put(zip, "skipped.txt", "\t".getBytes(UTF_8));
+        }
+        final Map<String, ScanResult> results = new TreeMap<>();
+        ArchiveChecker.check(archive, name -> !name.startsWith("skipped"),
+                CodeUnit.BYTE, results::put);
+        assertEquals("[big.txt, data.bin, dir/clean.txt, dir/tab.txt]",
+                results.keySet().toString());
+        assertFalse(results.get("dir/clean.txt").hasTab());
+        assertTrue(results.get("data.bin").isBinary());
+        assertEquals(2L, results.get("dir/tab.txt").getTabLine());
+        assertEquals(2L, results.get("dir/tab.txt").getTabColumn());
+        assertEquals(10001L, results.get("big.txt").getTabLine());
+        assertEquals(1L, results.get("big.txt").getTabColumn());
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static void put(final ZipOutputStream zip, final String name,
+            final byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+}
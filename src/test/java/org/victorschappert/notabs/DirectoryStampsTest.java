@@ -0,0 +1,108 @@
+package org.victorschappert.notabs;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link DirectoryStamps}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class DirectoryStampsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path base;
+    private Path stampFile;
+
+    @Before
+    public void setUp() throws IOException {
+        base = folder.newFolder("tree").toPath();
+        Files.createDirectories(base.resolve("a/b"));
+        Files.createFile(base.resolve("x.txt"));
+        Files.createFile(base.resolve("a/y.txt"));
+        Files.createFile(base.resolve("a/b/z.txt"));
+        stampFile = folder.getRoot().toPath().resolve("stamps");
+    }
+
+    @Test
+    public void testFirstRunScansEverything() throws IOException {
+        assertEquals(asList("a/b/z.txt", "a/y.txt", "x.txt"), run("c", null));
+    }
+
+    @Test
+    public void testUnchangedTreeIsSkipped() throws IOException {
+        run("c", null);
+        assertEquals(emptyList(), run("c", null));
+    }
+
+    @Test
+    public void testNewEntryRescansOnlyItsDirectory() throws IOException {
+        run("c", null);
+        Files.createFile(base.resolve("a/w.txt"));
+        assertEquals(asList("a/w.txt", "a/y.txt"), run("c", null));
+        assertEquals(emptyList(), run("c", null));
+    }
+
+    @Test
+    public void testDirtyDirectoryIsRescanned() throws IOException {
+        run("c", "a/b/z.txt");
+        assertEquals(asList("a/b/z.txt"), run("c", null));
+    }
+
+    @Test
+    public void testConfigChangeRescansEverything() throws IOException {
+        run("c", null);
+        assertEquals(3, run("d", null).size());
+    }
+
+    @Test
+    public void testRecentlyModifiedDirectoryIsNotStamped()
+            throws IOException {
+        run("c", null, System.currentTimeMillis() - 60000L);
+        assertEquals(3, run("c", null).size());
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private List<String> run(final String config, final String dirty)
+            throws IOException {
+        // Pretend the run starts well after the tree was created
+        return run(config, dirty, System.currentTimeMillis() + 60000L);
+    }
+
+    private List<String> run(final String config, final String dirty,
+            final long started) throws IOException {
+        final DirectoryStamps stamps = new DirectoryStamps(stampFile, config,
+                started);
+        stamps.load();
+        final List<String> result = new ArrayList<>();
+        stamps.traverse(base, base.toFile(), normalized -> true,
+                (File file, String normalized) -> result.add(normalized),
+                SymlinkPolicy.FOLLOW_ONCE, new HashSet<>());
+        if (null != dirty) {
+            stamps.dirty(dirty);
+        }
+        stamps.save();
+        result.sort(null);
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link NoTabsCli}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class NoTabsCliTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String base;
+    private ByteArrayOutputStream out;
+
+    @Before
+    public void setUp() throws IOException {
+        final Path root = folder.getRoot().toPath();
+        base = root.toString();
+        Files.createDirectories(root.resolve("src/gen"));
+        Files.write(root.resolve("src/clean.txt"), "ok\n".getBytes(UTF_8));
+        Files.write(root.resolve("src/tab.txt"), "a\n\tb\n".getBytes(UTF_8));
+        Files.write(root.resolve("src/gen/tab.txt"), "\t".getBytes(UTF_8));
+        out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void testArguments() {
+        assertEquals(1, run("", "--encoding", "UTF-8", "--basedir", base,
+                "src/clean.txt", "src/tab.txt"));
+        assertEquals("src/tab.txt:[2,1] contains a tab", output());
+    }
+
+    @Test
+    public void testStdinWithSubglob() {
+        assertEquals(0, run("src/clean.txt\nsrc/gen/tab.txt\n", "--encoding",
+                "UTF-8", "--basedir", base, "--subglob", "src/gen"));
+        assertEquals("", output());
+    }
+
+    @Test
+    public void testExcludedDirectoryArgument() {
+        assertEquals(0, run("", "--encoding", "UTF-8", "--basedir", base,
+                "--subglob", "src/gen", "src/gen"));
+    }
+
+    @Test
+    public void testDirectory() {
+        assertEquals(1, run("", "--encoding", "UTF-8", "--basedir", base,
+                "--subglob", "**/clean.txt", "src"));
+        assertEquals(2, output().split("\n").length);
+    }
+
+    @Test
+    public void testBadOption() {
+        assertEquals(2, run("", "--bogus", "x"));
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private int run(final String stdin, final String... args) {
+        return new NoTabsCli(new PrintStream(out, true), new PrintStream(
+                new ByteArrayOutputStream())).run(args, new BufferedReader(
+                new StringReader(stdin)));
+    }
+
+    private String output() {
+        return new String(out.toByteArray(), UTF_8).trim();
+    }
+}
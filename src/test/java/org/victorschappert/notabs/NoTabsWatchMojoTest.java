@@ -0,0 +1,50 @@
+package org.victorschappert.notabs;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link NoTabsWatchMojo}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class NoTabsWatchMojoTest {
+
+    @Test
+    public void testForgetFile() {
+        final Set<String> offending = offending();
+        NoTabsWatchMojo.forget(offending, "a/x.txt");
+        assertEquals(new TreeSet<>(asList("a/b/y.txt", "a/c.jar!/z.txt",
+                "ab/w.txt")), offending);
+    }
+
+    @Test
+    public void testForgetArchive() {
+        final Set<String> offending = offending();
+        NoTabsWatchMojo.forget(offending, "a/c.jar");
+        assertEquals(new TreeSet<>(asList("a/b/y.txt", "a/x.txt",
+                "ab/w.txt")), offending);
+    }
+
+    @Test
+    public void testForgetDirectory() {
+        final Set<String> offending = offending();
+        NoTabsWatchMojo.forget(offending, "a");
+        assertEquals(new TreeSet<>(asList("ab/w.txt")), offending);
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static Set<String> offending() {
+        return new TreeSet<>(asList("a/x.txt", "a/b/y.txt", "a/c.jar!/z.txt",
+                "ab/w.txt"));
+    }
+}
@@ -0,0 +1,103 @@
+package org.victorschappert.notabs;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ParallelTraverser}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class ParallelTraverserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path base;
+
+    @Before
+    public void setUp() throws IOException {
+        base = folder.getRoot().toPath();
+        for (int i = 0; i < 5; ++i) {
+            for (int j = 0; j < 5; ++j) {
+                final Path dir = base.resolve("d" + i + "/e" + j);
+                Files.createDirectories(dir);
+                Files.write(dir.resolve("f.txt"), new byte[i * 10 + j]);
+            }
+        }
+        Files.createSymbolicLink(base.resolve("d0/e0/loop"), base);
+        Files.createSymbolicLink(base.resolve("alias"), base.resolve("d1"));
+    }
+
+    @Test
+    public void testMatchesSequential() {
+        for (final SymlinkPolicy policy : SymlinkPolicy.values()) {
+            final List<String> sequential = new ArrayList<>();
+            PathUtil.traverse(base, base.toFile(),
+                    normalized -> !normalized.startsWith("d4"),
+                    (File file, String normalized) -> sequential
+                            .add(normalized), policy, new HashSet<>());
+            final List<String> parallel = new ArrayList<>();
+            final ParallelTraverser traverser = new ParallelTraverser(
+                    new ForkJoinPool(4));
+            traverser.traverse(base, base.toFile(),
+                    normalized -> !normalized.startsWith("d4"),
+                    (File file, String normalized) -> {
+                        parallel.add(normalized);
+                        assertEquals(file.length(), traverser.size(file));
+                    }, policy, new HashSet<>());
+            sequential.sort(null);
+            parallel.sort(null);
+            if (SymlinkPolicy.FOLLOW_ONCE == policy) {
+                // The traversals may reach a file under different names
+                assertEquals(sequential.size(), parallel.size());
+            } else {
+                assertEquals(policy.name(), sequential, parallel);
+            }
+        }
+    }
+
+    @Test
+    public void testFollowOncePicksSameNamesEveryRun() throws IOException {
+        final Path outside = base.resolve("outside");
+        Files.createDirectories(outside);
+        Files.createFile(outside.resolve("g.txt"));
+        Files.createSymbolicLink(base.resolve("z1"), outside);
+        Files.createSymbolicLink(base.resolve("y1"), outside);
+        Files.createLink(base.resolve("h1.txt"), base.resolve("d0/e0/f.txt"));
+        Files.createSymbolicLink(base.resolve("d3/s.txt"),
+                base.resolve("d2/e2/f.txt"));
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            for (int j = 0; j < 5; ++j) {
+                expected.add("d" + i + "/e" + j + "/f.txt");
+            }
+        }
+        expected.add("y1/g.txt");
+        for (int run = 0; run < 20; ++run) {
+            final List<String> parallel = new ArrayList<>();
+            new ParallelTraverser(new ForkJoinPool(4)).traverse(base, base
+                    .toFile(), normalized -> !normalized.startsWith("d4")
+                    && !normalized.startsWith("outside"),
+                    (File file, String normalized) -> parallel
+                            .add(normalized), SymlinkPolicy.FOLLOW_ONCE,
+                    new HashSet<>());
+            parallel.sort(null);
+            assertEquals(expected, parallel);
+        }
+    }
+}
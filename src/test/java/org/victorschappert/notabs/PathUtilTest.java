@@ -0,0 +1,175 @@
+package org.victorschappert.notabs;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link PathUtil}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class PathUtilTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path base;
+
+    @Before
+    public void setUp() throws IOException {
+        base = folder.getRoot().toPath();
+        Files.createDirectories(base.resolve("a/b"));
+        Files.createFile(base.resolve("a/b/x.txt"));
+        // Loop back to an ancestor and a second path to the same directory
+        Files.createSymbolicLink(base.resolve("a/b/loop"), base.resolve("a"));
+        Files.createSymbolicLink(base.resolve("shared"), base.resolve("a/b"));
+    }
+
+    @Test
+    public void testSkip() {
+        assertEquals(asList("a/b/x.txt"), traverse(SymlinkPolicy.SKIP));
+    }
+
+    @Test
+    public void testFollowStopsAtCycles() {
+        assertEquals(asList("a/b/x.txt", "shared/x.txt"),
+                traverse(SymlinkPolicy.FOLLOW));
+    }
+
+    @Test
+    public void testFollowOnceScansPhysicalFileOnce() {
+        assertEquals(1, traverse(SymlinkPolicy.FOLLOW_ONCE).size());
+    }
+
+    @Test
+    public void testFollowOnceRecordsOnlyDirectories() {
+        final HashSet<Object> seen = new HashSet<>();
+        PathUtil.traverse(base, base.toFile(), normalized -> true,
+                (File file, String normalized) -> {
+                }, SymlinkPolicy.FOLLOW_ONCE, seen);
+        assertEquals(3, seen.size());
+    }
+
+    @Test
+    public void testFollowOnceScansLinkedFileOnce() throws IOException {
+        Files.createFile(base.resolve("a/y.txt"));
+        Files.createLink(base.resolve("hard.txt"), base.resolve("a/y.txt"));
+        Files.createSymbolicLink(base.resolve("soft.txt"),
+                base.resolve("a/y.txt"));
+        // The file may also be reached through shared/loop
+        assertEquals(1, traverse(SymlinkPolicy.FOLLOW_ONCE).stream()
+                .filter(normalized -> !normalized.endsWith("x.txt")).count());
+    }
+
+    @Test
+    public void testFollowOncePassesNames() throws IOException {
+        Files.createFile(base.resolve("y.txt"));
+        Files.createLink(base.resolve("hard.txt"), base.resolve("y.txt"));
+        Files.createSymbolicLink(base.resolve("soft.txt"),
+                base.resolve("a/b/x.txt"));
+        assertEquals(PathUtil.Names.ONE, names("a/b/x.txt"));
+        assertEquals(PathUtil.Names.HARD_LINKED, names("hard.txt"));
+        assertEquals(PathUtil.Names.SYMBOLIC_LINK, names("soft.txt"));
+        assertEquals(PathUtil.Names.SYMBOLIC_LINK, names("shared"));
+    }
+
+    @Test
+    public void testFollowOnceScansLinkOutsideTree() throws IOException {
+        final Path outside = folder.newFolder("outside").toPath();
+        Files.createFile(outside.resolve("y.txt"));
+        Files.createSymbolicLink(base.resolve("a/soft.txt"),
+                outside.resolve("y.txt"));
+        final List<String> result = new ArrayList<>();
+        PathUtil.traverse(base, base.resolve("a").toFile(),
+                normalized -> true,
+                (File file, String normalized) -> result.add(normalized),
+                SymlinkPolicy.FOLLOW_ONCE, new HashSet<>());
+        assertTrue(result.contains("a/soft.txt"));
+    }
+
+    @Test
+    public void testFilterPrunesDirectoriesWhileListing() throws IOException {
+        Files.createDirectories(base.resolve("a/skip"));
+        Files.createFile(base.resolve("a/skip/y.txt"));
+        final List<String> seen = new ArrayList<>();
+        final List<String> result = new ArrayList<>();
+        PathUtil.traverse(base, base.toFile(), normalized -> {
+            seen.add(normalized);
+            return !normalized.endsWith("skip");
+        }, (File file, String normalized) -> result.add(normalized),
+                SymlinkPolicy.SKIP, new HashSet<>());
+        assertEquals(asList("a/b/x.txt"), result);
+        assertFalse(seen.contains("a/skip/y.txt"));
+    }
+
+    @Test
+    public void testIsIncludedWithParents() {
+        final Predicate<String> filter = normalized -> !"a/b"
+                .equals(normalized);
+        assertTrue(PathUtil.isIncludedWithParents(filter, "a/c/x.txt"));
+        assertFalse(PathUtil.isIncludedWithParents(filter, "a/b"));
+        assertFalse(PathUtil.isIncludedWithParents(filter, "a/b/c/x.txt"));
+    }
+
+    @Test
+    public void testFileKeyIdentifiesPhysicalFile() throws IOException {
+        final Path direct = base.resolve("a/b/x.txt");
+        final Path linked = base.resolve("shared/x.txt");
+        assertEquals(PathUtil.fileKey(direct, Files.readAttributes(direct,
+                BasicFileAttributes.class)),
+                PathUtil.fileKey(linked, Files.readAttributes(linked,
+                        BasicFileAttributes.class)));
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private PathUtil.Names names(final String entry) {
+        final List<PathUtil.Names> result = new ArrayList<>();
+        PathUtil.visit(base, base.resolve(entry), normalized -> true,
+                SymlinkPolicy.FOLLOW_ONCE, new HashSet<>(), key -> false,
+                new PathUtil.Visitor() {
+                    @Override
+                    public void enter(final File dir,
+                            final BasicFileAttributes attrs,
+                            final Object key) {
+                        result.add(PathUtil.names(attrs));
+                    }
+
+                    @Override
+                    public void file(final File file,
+                            final String normalized,
+                            final BasicFileAttributes attrs) {
+                        result.add(PathUtil.names(attrs));
+                    }
+                });
+        assertEquals(1, result.size());
+        return result.get(0);
+    }
+
+    private List<String> traverse(final SymlinkPolicy policy) {
+        final List<String> result = new ArrayList<>();
+        PathUtil.traverse(base, base.toFile(), normalized -> true,
+                (File file, String normalized) -> result.add(normalized),
+                policy, new HashSet<>());
+        result.sort(null);
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link Prefetcher}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class PrefetcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testOrderAndContent() throws IOException {
+        final char[] big = new char[20000];
+        Arrays.fill(big, 'x');
+        final List<String> expected = new ArrayList<>();
+        final List<String> actual = new ArrayList<>();
+        // The budget gives 8 KB buffers, so the 20 KB file isn't prefetched
+        try (final Prefetcher prefetcher = new Prefetcher(4, 32768L,
+                (file, normalized, content, length) -> actual.add(normalized
+                        + '=' + (null == content ? "direct" : new String(
+                                content, 0, length, UTF_8))))) {
+            for (int k = 0; k < 20; ++k) {
+                if (7 == k) {
+                    prefetcher.submit(write(new String(big)), "f" + k);
+                    expected.add("f" + k + "=direct");
+                } else {
+                    prefetcher.submit(write("content " + k), "f" + k);
+                    expected.add("f" + k + "=content " + k);
+                }
+            } // for
+            prefetcher.finish();
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testReadFailuresLeavePrefetcherUsable() throws IOException {
+        final List<String> actual = new ArrayList<>();
+        try (final Prefetcher prefetcher = new Prefetcher(1, 8192L,
+                (file, normalized, content, length) -> actual.add(normalized
+                        + '=' + new String(content, 0, length, UTF_8)))) {
+            // An I/O error, then a runtime error from an invalid path
+            for (final File bad : Arrays.asList(folder.newFolder(), new File(
+                    "bad\0name"))) {
+                prefetcher.submit(bad, "bad");
+                try {
+                    prefetcher.finish();
+                    fail("Expected a read failure for " + bad);
+                } catch (UncheckedIOException e) {
+                    // Expected
+                }
+                prefetcher.submit(write("ok"), "ok");
+                prefetcher.finish();
+            } // for
+        }
+        assertEquals(Arrays.asList("ok=ok", "ok=ok"), actual);
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private File write(final String text) throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), text.getBytes(UTF_8));
+        return file;
+    }
+}
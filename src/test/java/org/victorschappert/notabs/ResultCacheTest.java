@@ -0,0 +1,135 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ResultCache}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class ResultCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final ResultCache cache = new ResultCache(cacheDir(), 10,
+                CodeUnit.BYTE, "1");
+        final Path file = write("abc\nd\te\n");
+        final String key = cache.key(file);
+        assertNull(cache.get(key));
+        final ScanResult scanned = TabChecker.check(file, CodeUnit.BYTE,
+                Long.MAX_VALUE, 1L);
+        cache.put(key, scanned);
+        final ScanResult cached = cache.get(key);
+        assertNotNull(cached);
+        assertTrue(cached.hasTab());
+        assertEquals(scanned.getTabOffset(), cached.getTabOffset());
+        assertEquals(scanned.getTabLine(), cached.getTabLine());
+        assertEquals(scanned.getTabColumn(), cached.getTabColumn());
+    }
+
+    @Test
+    public void testKeyDependsOnContentAndConfig() throws IOException {
+        final Path cacheDir = cacheDir();
+        final ResultCache utf8 = new ResultCache(cacheDir, 10,
+                CodeUnit.BYTE, "1");
+        final ResultCache utf16 = new ResultCache(cacheDir, 10,
+                CodeUnit.UTF_16BE, "1");
+        final Path a = write("same");
+        final Path b = write("same");
+        final Path c = write("different");
+        assertEquals(utf8.key(a), utf8.key(b));
+        assertNotEquals(utf8.key(a), utf8.key(c));
+        assertNotEquals(utf8.key(a), utf16.key(a));
+        assertNotEquals(utf8.key(a), new ResultCache(cacheDir, 10,
+                CodeUnit.BYTE, "2").key(a));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        final ResultCache cache = new ResultCache(cacheDir(), 10,
+                CodeUnit.BYTE, "1");
+        final ScanResult clean = TabChecker.check(write("x"), CodeUnit.BYTE,
+                Long.MAX_VALUE, 1L);
+        String oldest = null;
+        for (int k = 0; k < 12; ++k) {
+            final String key = cache.key(write("file " + k));
+            cache.put(key, clean);
+            if (null == oldest) {
+                oldest = key;
+            }
+        }
+        try (final Stream<Path> entries = Files.walk(cacheDir())) {
+            entries.filter(Files::isRegularFile).forEach(
+                    entry -> setTime(entry, 2000L));
+        }
+        setTime(cacheDir().resolve(oldest.substring(0, 2)).resolve(
+                oldest + ".verdict"), 1000L);
+        cache.evict();
+        assertNull(cache.get(oldest));
+        try (final Stream<Path> entries = Files.walk(cacheDir())) {
+            assertEquals(9L, entries.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void testStreamedKeyMatches() throws IOException {
+        final ResultCache cache = new ResultCache(cacheDir(), 10,
+                CodeUnit.BYTE, "1");
+        final MessageDigest digest = cache.newKeyDigest();
+        digest.update("abc".getBytes(UTF_8));
+        assertEquals(cache.key(write("abc")), cache.key(digest));
+    }
+
+    @Test
+    public void testEvictSkippedWithoutWrites() throws IOException {
+        final ResultCache writer = new ResultCache(cacheDir(), 1000,
+                CodeUnit.BYTE, "1");
+        final ScanResult clean = TabChecker.check(write("x"), CodeUnit.BYTE,
+                Long.MAX_VALUE, 1L);
+        for (int k = 0; k < 12; ++k) {
+            writer.put(writer.key(write("file " + k)), clean);
+        }
+        new ResultCache(cacheDir(), 10, CodeUnit.BYTE, "1").evict();
+        try (final Stream<Path> entries = Files.walk(cacheDir())) {
+            assertEquals(12L, entries.filter(Files::isRegularFile).count());
+        }
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private Path cacheDir() {
+        return folder.getRoot().toPath().resolve("cache");
+    }
+
+    private Path write(final String text) throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(UTF_8));
+        return file;
+    }
+
+    private static void setTime(final Path entry, final long millis) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(millis));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.victorschappert.notabs;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ScanRoots}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class ScanRootsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path base;
+
+    @Before
+    public void setUp() throws IOException {
+        base = folder.getRoot().toPath();
+        touch("src/main/java/A.java");
+        touch("src/main/java/gen/B.java");
+        touch("src/main/resources/a.properties");
+        touch("src/main/resources/b.xml");
+        touch("target/classes/A.class");
+    }
+
+    @Test
+    public void testNestedRootWalkedOnce() {
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src/main/java"), none(), none());
+        roots.add(base.resolve("src/main/java/gen"), none(), none());
+        assertEquals(asList("src/main/java/A.java", "src/main/java/gen/B.java"),
+                walk(roots));
+    }
+
+    @Test
+    public void testResourceIncludesAndExcludes() {
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src/main/resources"), asList("**/*.*"),
+                asList("**/*.xml"));
+        assertEquals(asList("src/main/resources/a.properties"), walk(roots));
+    }
+
+    @Test
+    public void testSameRootSelectorsCombined() {
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src/main/resources"), asList("**/*.xml"),
+                none());
+        roots.add(base.resolve("src/main/resources"),
+                asList("**/*.properties"), none());
+        assertEquals(asList("src/main/resources/a.properties",
+                "src/main/resources/b.xml"), walk(roots));
+    }
+
+    @Test
+    public void testOverlappingFilteredRootsScanFileOnce() {
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src"), asList("**/*.java"), none());
+        roots.add(base.resolve("src/main/java/gen"), none(), none());
+        assertEquals(asList("src/main/java/A.java", "src/main/java/gen/B.java"),
+                walk(roots));
+    }
+
+    @Test
+    public void testRootUnderExcludedDirectorySkipped() throws IOException {
+        touch("target/generated-sources/x/G.java");
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src/main/java"), none(), none());
+        roots.add(base.resolve("target/generated-sources"), none(), none());
+        roots.add(base.resolve("target/classes/A.class"), none(), none());
+        assertEquals(asList("src/main/java/A.java", "src/main/java/gen/B.java"),
+                walk(roots, normalized -> !"target".equals(normalized)));
+    }
+
+    @Test
+    public void testSelects() {
+        final ScanRoots roots = new ScanRoots();
+        roots.add(base.resolve("src/main/java"), none(), none());
+        roots.add(base.resolve("src/main/resources"), asList("**/*.*"),
+                asList("**/*.xml"));
+        roots.add(base.resolve("pom.xml"), none(), none());
+        assertTrue(roots.selects(base.resolve("src/main/java/gen/B.java")));
+        assertTrue(roots.selects(base.resolve("src/main/resources/c.txt")));
+        assertFalse(roots.selects(base.resolve("src/main/resources/b.xml")));
+        assertFalse(roots.selects(base.resolve("target/classes/A.class")));
+        assertTrue(roots.selects(base.resolve("pom.xml")));
+        assertFalse(roots.contains(base.resolve("target")));
+        assertEquals(3, roots.getRoots().size());
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static List<String> none() {
+        return emptyList();
+    }
+
+    private void touch(final String relpath) throws IOException {
+        final Path file = base.resolve(relpath);
+        Files.createDirectories(file.getParent());
+        Files.createFile(file);
+    }
+
+    private List<String> walk(final ScanRoots roots) {
+        return walk(roots, normalized -> true);
+    }
+
+    private List<String> walk(final ScanRoots roots,
+            final Predicate<String> filter) {
+        final List<String> result = new ArrayList<>();
+        roots.walk(base, filter,
+                (File file, String normalized) -> result.add(normalized),
+                SymlinkPolicy.FOLLOW_ONCE);
+        result.sort(null);
+        return result;
+    }
+}
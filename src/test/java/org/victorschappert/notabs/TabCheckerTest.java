@@ -0,0 +1,189 @@
+package org.victorschappert.notabs;
+
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link TabChecker}.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class TabCheckerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testNoTabs() throws IOException {
+        final ScanResult result = check("abc\ndef\n", UTF_8);
+        assertFalse(result.isBinary());
+        assertFalse(result.hasTab());
+    }
+
+    @Test
+    public void testTabPosition() throws IOException {
+        for (final Charset charset : new Charset[] { UTF_8, UTF_16BE,
+                UTF_16LE, Charset.forName("UTF-32LE") }) {
+            final ScanResult result = check("abc\nde\tf\n\t", charset);
+            assertTrue(charset.name(), result.hasTab());
+            assertEquals(charset.name(), 2L, result.getTabLine());
+            assertEquals(charset.name(), 3L, result.getTabColumn());
+            assertEquals(charset.name(),
+                    6L * CodeUnit.of(charset).size(),
+                    result.getTabOffset());
+        }
+    }
+
+    @Test
+    public void testUtf16NotBinary() throws IOException {
+        // Each ASCII character has a zero byte, but no code unit is all zeros.
+        assertFalse(check("a\tb", UTF_16BE).isBinary());
+    }
+
+    @Test
+    public void testByteOrder() throws IOException {
+        // U+0900 and U+0A00 share their non-zero byte with tab and line feed
+        for (final String name : new String[] { "UTF-16BE", "UTF-16LE",
+                "UTF-16", "UTF-32BE", "UTF-32LE", "UTF-32" }) {
+            final ScanResult result = check("a\u0900\u0a00b\u0900",
+                    Charset.forName(name));
+            assertFalse(name, result.isBinary());
+            assertFalse(name, result.hasTab());
+        }
+    }
+
+    @Test
+    public void testByteOrderMark() throws IOException {
+        final byte[] le = { (byte) 0xff, (byte) 0xfe, 'a', 0, '\t', 0 };
+        final ScanResult result = TabChecker.check(new ByteArrayInputStream(
+                le), CodeUnit.UTF_16);
+        assertTrue(result.hasTab());
+        assertEquals(4L, result.getTabOffset());
+        assertEquals(2L, result.getTabColumn());
+        // Java's UTF-16 encoder writes a big-endian byte order mark
+        assertTrue(check("\n\tx", UTF_16).hasTab());
+        assertFalse(TabChecker.check(new ByteArrayInputStream(new byte[] {
+                (byte) 0xff, (byte) 0xfe, 0, '\t' }), CodeUnit.UTF_16)
+                .hasTab());
+    }
+
+    @Test
+    public void testByteOrderMarkNotCounted() throws IOException {
+        for (final Charset charset : new Charset[] { UTF_8, UTF_16BE,
+                UTF_16LE, Charset.forName("UTF-32BE"),
+                Charset.forName("UTF-32LE"), Charset.forName("UTF-32") }) {
+            final ScanResult result = check("\ufeffa\tb", charset);
+            assertEquals(charset.name(), 1L, result.getTabLine());
+            assertEquals(charset.name(), 2L, result.getTabColumn());
+        }
+        // Java's UTF-16 encoder writes the byte order mark itself
+        assertEquals(2L, check("a\tb", UTF_16).getTabColumn());
+        // Other single-byte encodings have no byte order mark
+        assertEquals(5L, check("\u00ef\u00bb\u00bfa\tb", Charset.forName(
+                "ISO-8859-1")).getTabColumn());
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        final byte[] bytes = { 'a', '\t', 0, 'b' };
+        assertTrue(TabChecker.check(new ByteArrayInputStream(bytes),
+                CodeUnit.BYTE).isBinary());
+    }
+
+    @Test
+    public void testChunkedMatchesSequential() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int k = 0; k < 500; ++k) {
+            text.append("line ").append(k).append('\n');
+        }
+        text.append("xyz\tabc\n");
+        for (final Charset charset : new Charset[] { UTF_8, UTF_16LE,
+                UTF_16 }) {
+            final Path file = write(text.toString(), charset);
+            final ScanResult sequential = TabChecker.check(file,
+                    CodeUnit.of(charset), Long.MAX_VALUE, 1L);
+            // Odd chunk size forces boundaries mid-line and rounding to units.
+            final ScanResult chunked = TabChecker.check(file,
+                    CodeUnit.of(charset), 0L, 37L);
+            assertTrue(chunked.hasTab());
+            assertEquals(sequential.getTabOffset(), chunked.getTabOffset());
+            assertEquals(sequential.getTabLine(), chunked.getTabLine());
+            assertEquals(sequential.getTabColumn(), chunked.getTabColumn());
+            assertEquals(501L, chunked.getTabLine());
+            assertEquals(4L, chunked.getTabColumn());
+        }
+    }
+
+    @Test
+    public void testChunkedByteOrderMark() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        for (int k = 0; k < 100; ++k) {
+            text.append("\u0900\u0a00\n");
+        }
+        final Path file = write(text.toString(), Charset
+                .forName("x-UTF-16LE-BOM"));
+        assertFalse(TabChecker.check(file, CodeUnit.UTF_16, 0L, 37L)
+                .hasTab());
+    }
+
+    @Test
+    public void testChunkedByteOrderMarkNotCounted() throws IOException {
+        for (final Charset charset : new Charset[] { UTF_8, UTF_16BE,
+                Charset.forName("UTF-32LE") }) {
+            final Path file = write("\ufeffab\tc\n", charset);
+            final CodeUnit unit = CodeUnit.of(charset);
+            assertEquals(charset.name(), 3L, TabChecker.check(file, unit,
+                    Long.MAX_VALUE, 1L).getTabColumn());
+            assertEquals(charset.name(), 3L, TabChecker.check(file, unit, 0L,
+                    1L).getTabColumn());
+        }
+        // U+FEFF after the start is a character, even at a chunk boundary
+        final Path file = write("ab\ufeff\t", UTF_16BE);
+        assertEquals(4L, TabChecker.check(file, CodeUnit.UTF_16BE, 0L, 4L)
+                .getTabColumn());
+    }
+
+    @Test
+    public void testChunkedBinary() throws IOException {
+        final Path file = folder.newFile().toPath();
+        final byte[] bytes = new byte[1000];
+        Arrays.fill(bytes, (byte) 'a');
+        bytes[900] = 0;
+        Files.write(file, bytes);
+        assertTrue(TabChecker.check(file, CodeUnit.BYTE, 0L, 64L)
+                .isBinary());
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static ScanResult check(final String text, final Charset charset)
+            throws IOException {
+        return TabChecker.check(
+                new ByteArrayInputStream(text.getBytes(charset)),
+                CodeUnit.of(charset));
+    }
+
+    private Path write(final String text, final Charset charset)
+            throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(charset));
+        return file;
+    }
+}
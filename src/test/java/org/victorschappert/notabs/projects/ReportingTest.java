@@ -0,0 +1,116 @@
+package org.victorschappert.notabs.projects;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.Scanner;
+import org.junit.Test;
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+import org.sonatype.plexus.build.incremental.EmptyScanner;
+import org.victorschappert.notabs.NoTabsMojo;
+
+/**
+ * Tests how {@link NoTabsMojo} reports tabs in full and incremental builds.
+ *
+ * @author Victor Schappert
+ * @since 20261019
+ */
+public class ReportingTest extends MojoTestCase {
+
+    @Test
+    public void testFullBuildReportsEachTabOnce() throws Exception {
+        final RecordingBuildContext context = new RecordingBuildContext(
+                false);
+        final List<String> errors = new ArrayList<>();
+        final NoTabsMojo mojo = lookupMojo(context, errors);
+        try {
+            mojo.execute();
+            fail("Expected the build to fail");
+        } catch (MojoFailureException e) {
+            // Expected
+        }
+        assertEquals(asList("Tab.java:2:1:" + BuildContext.SEVERITY_ERROR),
+                context.messages);
+        assertEquals(new ArrayList<String>(), errors);
+    }
+
+    @Test
+    public void testIncrementalBuildChecksSelectedChanges() throws Exception {
+        final RecordingBuildContext context = new RecordingBuildContext(
+                true, "src/main/java/Tab.java", "gen/Gen.java");
+        final NoTabsMojo mojo = lookupMojo(context, new ArrayList<>());
+        mojo.execute();
+        assertEquals(asList("Tab.java:2:1:" + BuildContext.SEVERITY_WARNING),
+                context.messages);
+    }
+
+    //
+    // INTERNALS
+    //
+
+    private static final class RecordingBuildContext extends
+            DefaultBuildContext {
+        private final boolean incremental;
+        private final String[] changed;
+        private final List<String> messages = new ArrayList<>();
+
+        private RecordingBuildContext(final boolean incremental,
+                final String... changed) {
+            this.incremental = incremental;
+            this.changed = changed;
+        }
+
+        @Override
+        public boolean isIncremental() {
+            return incremental;
+        }
+
+        @Override
+        public Scanner newScanner(final File basedir) {
+            if (!incremental) {
+                return super.newScanner(basedir);
+            }
+            final DirectoryScanner scanner = new DirectoryScanner();
+            scanner.setBasedir(basedir);
+            scanner.setIncludes(changed);
+            return scanner;
+        }
+
+        @Override
+        public Scanner newDeleteScanner(final File basedir) {
+            return new EmptyScanner(basedir);
+        }
+
+        @Override
+        public void addMessage(final File file, final int line,
+                final int column, final String message, final int severity,
+                final Throwable cause) {
+            messages.add(file.getName() + ':' + line + ':' + column + ':'
+                    + severity);
+        }
+    }
+
+    private NoTabsMojo lookupMojo(final BuildContext context,
+            final List<String> errors) throws Exception {
+        final File pom = getTestFile(
+                "src/test/resources/projects/tab_in_source_notabs/pom.xml");
+        final NoTabsMojo mojo = (NoTabsMojo) lookupConfiguredMojo(pom,
+                "notabs");
+        setVariableValueToObject(mojo, "buildContext", context);
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public void error(final CharSequence content) {
+                errors.add(content.toString());
+            }
+        });
+        return mojo;
+    }
+}
@@ -0,0 +1,3 @@
+class Gen {
+	int y;
+}
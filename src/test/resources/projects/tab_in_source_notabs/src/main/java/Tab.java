@@ -0,0 +1,3 @@
+class Tab {
+	int x;
+}